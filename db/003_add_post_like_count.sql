@@ -0,0 +1,7 @@
+-- Denormalized like counter on posts, maintained by PostLikeService
+ALTER TABLE posts ADD COLUMN like_count BIGINT NOT NULL DEFAULT 0;
+
+-- Existing rows start at 0. Fill them in chunks by starting the application
+-- once with app.likes.like-count-backfill.on-startup=true, or for small
+-- tables run the equivalent statement directly:
+-- UPDATE posts p SET like_count = (SELECT COUNT(*) FROM post_likes pl WHERE pl.post_id = p.id);
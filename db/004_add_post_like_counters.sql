@@ -0,0 +1,9 @@
+-- Sharded like counters for contended posts, maintained by SlottedLikeCounter.
+-- A post's like count is posts.like_count plus the sum of its slots.
+CREATE TABLE IF NOT EXISTS post_like_counters (
+    post_id BIGINT NOT NULL,
+    slot INT NOT NULL,
+    cnt BIGINT NOT NULL,
+    PRIMARY KEY (post_id, slot),
+    CONSTRAINT fk_post_like_counters_post FOREIGN KEY (post_id) REFERENCES posts(id) ON DELETE CASCADE
+);
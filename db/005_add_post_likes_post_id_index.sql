@@ -0,0 +1,2 @@
+-- Keyset pagination of a post's likers (GET /likes/post/{postId}/users)
+CREATE INDEX idx_post_likes_post_id_id ON post_likes (post_id, id);
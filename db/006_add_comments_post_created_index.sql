@@ -0,0 +1,3 @@
+-- Keyset pagination of a post's comments (GET /comments/post/{postId}),
+-- ordered by created_at DESC, id DESC
+CREATE INDEX idx_comments_post_created_id ON comments (post_id, created_at, id);
@@ -0,0 +1,5 @@
+-- Denormalized comment counter on posts, maintained by CommentService
+ALTER TABLE posts ADD COLUMN comment_count BIGINT NOT NULL DEFAULT 0;
+
+-- Fill in existing rows
+UPDATE posts p SET comment_count = (SELECT COUNT(*) FROM comments c WHERE c.post_id = p.id);
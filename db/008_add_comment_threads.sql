@@ -0,0 +1,13 @@
+-- Threaded replies with a materialized path, maintained by CommentService.
+-- parent_id has no foreign key: deletes remove a whole subtree by path.
+ALTER TABLE comments
+    ADD COLUMN parent_id BIGINT NULL,
+    ADD COLUMN root_id BIGINT NULL,
+    ADD COLUMN depth INT NOT NULL DEFAULT 0,
+    ADD COLUMN path VARCHAR(650) NULL;
+
+-- Existing comments are all top-level
+UPDATE comments SET root_id = id, path = CONCAT(LPAD(id, 12, '0'), '/') WHERE path IS NULL;
+
+CREATE INDEX idx_comments_post_depth_created_id ON comments (post_id, depth, created_at, id);
+CREATE INDEX idx_comments_root_path ON comments (root_id, path);
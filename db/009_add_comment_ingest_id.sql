@@ -0,0 +1,4 @@
+-- Asynchronous comment ingestion (see CommentIngestService): the id assigned
+-- on acceptance is stored with the comment so journal replays are idempotent
+ALTER TABLE comments ADD COLUMN ingest_id VARCHAR(36) NULL;
+CREATE UNIQUE INDEX uk_comments_ingest_id ON comments (ingest_id);
@@ -0,0 +1,9 @@
+-- HyperLogLog sketch of the users who commented on each post, maintained by
+-- UniqueCommenterService. Rows are created on the first comment or read, so
+-- existing posts need no backfill.
+CREATE TABLE IF NOT EXISTS post_commenter_sketches (
+    post_id BIGINT NOT NULL,
+    registers VARBINARY(2048) NOT NULL,
+    PRIMARY KEY (post_id),
+    CONSTRAINT fk_post_commenter_sketches_post FOREIGN KEY (post_id) REFERENCES posts(id) ON DELETE CASCADE
+);
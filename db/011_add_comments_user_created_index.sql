@@ -0,0 +1,4 @@
+-- Keyset pagination of a user's comments (GET /users/{userId}/comments),
+-- ordered by created_at DESC, id DESC. Its user_id prefix also serves the
+-- user_id foreign key.
+CREATE INDEX idx_comments_user_created_id ON comments (user_id, created_at, id);
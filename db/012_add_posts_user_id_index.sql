@@ -0,0 +1,3 @@
+-- Keyset pagination of a user's posts (GET /users/{userId}/posts?mode=cursor),
+-- ordered by id DESC. Its user_id prefix also serves the user_id foreign key.
+CREATE INDEX idx_posts_user_id_id ON posts (user_id, id);
@@ -0,0 +1,7 @@
+-- Start of the post body for listings, so they never read the TEXT column.
+-- Maintained by the Post entity on insert and update.
+ALTER TABLE posts ADD COLUMN excerpt VARCHAR(200) NULL;
+
+-- Fill in existing rows (LEFT counts characters, as the entity does). On a
+-- large table run it in id ranges to keep each transaction short.
+UPDATE posts SET excerpt = LEFT(content, 200);
@@ -0,0 +1,21 @@
+-- Post bodies move to a binary column so ContentCodec can store them
+-- compressed. Changing the type of posts.content in place would copy the whole
+-- table under a lock, so the switch is made in steps, each online:
+--
+-- 1. Expand (this script): add the nullable content_bin column, an instant
+--    metadata change. The application writes both columns and reads
+--    content_bin, falling back to content while it is NULL; instances of the
+--    previous release keep reading content.
+-- 2. Backfill: once every instance runs the new release, enable
+--    app.posts.content-compression.migration.enabled. PostContentMigrationService
+--    fills content_bin in short id-range transactions and logs
+--    "Post content migration done" when a pass has completed.
+-- 3. Contract: after a completed pass, release the application without the
+--    legacyContent mapping of Post, then drop the text column:
+--
+--      ALTER TABLE posts MODIFY content_bin LONGBLOB NOT NULL, ALGORITHM=INPLACE, LOCK=NONE;
+--      ALTER TABLE posts DROP COLUMN content, ALGORITHM=INSTANT;
+--
+--    Before MySQL 8.0.29 the drop needs ALGORITHM=INPLACE, LOCK=NONE, which
+--    rebuilds the table but lets writes continue.
+ALTER TABLE posts ADD COLUMN content_bin LONGBLOB NULL, ALGORITHM=INSTANT;
@@ -0,0 +1,102 @@
+package com.test.practice.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.test.practice.dto.CommentDTO;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Newest comments of each post, enough rows to serve any first page.
+ *
+ * Entries are loaded by the caller on a miss and kept current by
+ * {@link #added}, which inserts a new comment in place instead of dropping
+ * the entry, so busy threads keep being served from memory. A load during
+ * which a comment was added to or invalidated for the post is returned but
+ * not cached: the comment may have committed after the loader's query and
+ * found no entry to update, and page 2 starts after the cached page's last
+ * row, so it would be unreachable until the entry expired. Each entry
+ * expires a fixed TTL after it was loaded (app.comments.first-page-cache.ttl);
+ * in-place updates do not extend it, which bounds drift from writes made
+ * through other instances.
+ */
+@Component
+public class FirstCommentPageCache {
+
+    // Same order as the comment listing: created_at DESC, id DESC
+    private static final Comparator<CommentDTO> NEWEST_FIRST = Comparator
+            .comparing(CommentDTO::getCreatedAt)
+            .thenComparing(CommentDTO::getId)
+            .reversed();
+
+    private final Cache<Long, List<CommentDTO>> firstPages;
+    private final int rows;
+    private final WriteSequences writes = new WriteSequences();
+
+    public FirstCommentPageCache(MeterRegistry meterRegistry,
+            @Value("${app.comments.first-page-cache.max-size:10000}") long maxSize,
+            @Value("${app.comments.first-page-cache.ttl:60s}") Duration ttl,
+            @Value("${app.comments.first-page-cache.rows:101}") int rows) {
+        this.rows = rows;
+        this.firstPages = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(Expiry.<Long, List<CommentDTO>>creating((postId, page) -> ttl))
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, firstPages, "comments.first-page");
+    }
+
+    /**
+     * Number of newest comments held per post; pages up to rows - 1 long
+     * can be served together with their hasMore flag.
+     */
+    public int rows() {
+        return rows;
+    }
+
+    public List<CommentDTO> get(Long postId, Function<Long, List<CommentDTO>> loader) {
+        List<CommentDTO> page = firstPages.getIfPresent(postId);
+        if (page != null) {
+            return page;
+        }
+        long sequence = writes.read(postId);
+        List<CommentDTO> loaded = List.copyOf(loader.apply(postId));
+        // Checked inside compute() so a write cannot slip in between the check and the insert
+        List<CommentDTO> cached = firstPages.asMap().compute(postId,
+                (id, current) -> current != null ? current : writes.read(postId) == sequence ? loaded : null);
+        return cached != null ? cached : loaded;
+    }
+
+    public void added(CommentDTO comment) {
+        writes.bump(comment.getPostId());
+        firstPages.asMap().computeIfPresent(comment.getPostId(), (postId, page) -> {
+            List<CommentDTO> updated = new ArrayList<>(page.size() + 1);
+            updated.addAll(page);
+            int position = Collections.binarySearch(updated, comment, NEWEST_FIRST);
+            if (position >= 0) {
+                return page;
+            }
+            updated.add(-position - 1, comment);
+            if (updated.size() > rows) {
+                updated.remove(updated.size() - 1);
+            }
+            return List.copyOf(updated);
+        });
+    }
+
+    public void invalidate(Long postId) {
+        writes.bump(postId);
+        firstPages.invalidate(postId);
+    }
+}
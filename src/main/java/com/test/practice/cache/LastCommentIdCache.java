@@ -0,0 +1,55 @@
+package com.test.practice.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.test.practice.repository.CommentRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Id of the newest comment per post, so delta polls that find nothing new
+ * are answered without a query.
+ *
+ * Loaded with one MAX(id) lookup on a miss and raised by CommentService
+ * after each comment commits. Entries expire after a short TTL
+ * (app.comments.last-id-cache.ttl), which bounds how long comments written
+ * through another instance can go unnoticed.
+ */
+@Component
+public class LastCommentIdCache {
+
+    private final CommentRepository commentRepository;
+    private final Cache<Long, Long> lastIds;
+
+    public LastCommentIdCache(CommentRepository commentRepository, MeterRegistry meterRegistry,
+            @Value("${app.comments.last-id-cache.max-size:100000}") long maxSize,
+            @Value("${app.comments.last-id-cache.ttl:5s}") Duration ttl) {
+        this.commentRepository = commentRepository;
+        this.lastIds = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, lastIds, "comments.last-id");
+    }
+
+    /**
+     * @return id of the post's newest comment, or 0 if it has none
+     */
+    public long get(Long postId) {
+        return lastIds.get(postId, id -> commentRepository.findMaxIdByPostId(id).orElse(0L));
+    }
+
+    public void added(Long postId, Long commentId) {
+        lastIds.asMap().computeIfPresent(postId, (id, lastId) -> Math.max(lastId, commentId));
+    }
+
+    public void invalidate(Long postId) {
+        lastIds.invalidate(postId);
+    }
+}
@@ -0,0 +1,186 @@
+package com.test.practice.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.test.practice.projection.PostLikeCountView;
+import com.test.practice.repository.PostLikeRepository;
+import com.test.practice.repository.PostRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-process like counters keyed by post id.
+ *
+ * Each post gets a {@link LongAdder} cell, so concurrent likes on a hot post
+ * update striped cells instead of contending on one value. Counts are loaded
+ * from {@code posts.like_count} on a miss and periodically reconciled against
+ * {@code post_likes}; the database stays the source of truth.
+ */
+@Component
+public class LikeCounterStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(LikeCounterStore.class);
+
+    private static final int CHUNK_SIZE = 500;
+
+    private final PostLikeRepository postLikeRepository;
+    private final PostRepository postRepository;
+    private final Cache<Long, LongAdder> counters;
+    private final AtomicLong lastDrift = new AtomicLong();
+    private final Counter corrections;
+
+    public LikeCounterStore(PostLikeRepository postLikeRepository, PostRepository postRepository,
+            MeterRegistry meterRegistry, @Value("${app.likes.counter-cache.max-size:100000}") long maxSize) {
+        this.postLikeRepository = postLikeRepository;
+        this.postRepository = postRepository;
+        this.counters = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .recordStats()
+                .build();
+
+        Gauge.builder("likes.counter.cache.hit.ratio", counters, c -> c.stats().hitRate())
+                .description("Share of like count reads served without a database query")
+                .register(meterRegistry);
+        Gauge.builder("likes.counter.cache.size", counters, Cache::estimatedSize)
+                .register(meterRegistry);
+        Gauge.builder("likes.counter.drift", lastDrift, AtomicLong::get)
+                .description("Sum of absolute differences found by the last reconcile run")
+                .register(meterRegistry);
+        this.corrections = Counter.builder("likes.counter.corrections")
+                .description("Cached counters corrected by reconcile")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Current like count for a post, loading it from the database on a miss.
+     */
+    public long get(Long postId) {
+        return counters.get(postId, this::load).sum();
+    }
+
+    /**
+     * Like counts for many posts. Misses are loaded together, one query per
+     * chunk of ids; posts that do not exist count as zero.
+     *
+     * @return count per requested post id, in request order
+     */
+    public Map<Long, Long> getAll(Collection<Long> postIds) {
+        Map<Long, LongAdder> cells = counters.getAll(postIds, this::loadAll);
+        Map<Long, Long> result = new LinkedHashMap<>();
+        for (Long postId : postIds) {
+            result.put(postId, cells.get(postId).sum());
+        }
+        return result;
+    }
+
+    /**
+     * Applies a committed change to a cached counter. Posts that are not cached
+     * are left alone; their next read loads the committed value.
+     */
+    public void add(Long postId, long delta) {
+        // asMap().get does not record a hit or miss
+        LongAdder cell = counters.asMap().get(postId);
+        if (cell != null) {
+            cell.add(delta);
+        }
+    }
+
+    public void invalidate(Long postId) {
+        counters.invalidate(postId);
+    }
+
+    /**
+     * Re-reads the counts of all cached posts and corrects cells that drifted,
+     * e.g. after a write whose after-commit update raced with a cache load.
+     *
+     * Cells are read before the count query and corrected by the difference to
+     * that reading, only if they still hold it afterwards. A like that commits
+     * while the query runs is then either not counted yet by the query or
+     * leaves the cell changed, which skips the post until the next run.
+     */
+    @Scheduled(initialDelayString = "${app.likes.counter-cache.reconcile-interval-ms:60000}",
+            fixedDelayString = "${app.likes.counter-cache.reconcile-interval-ms:60000}")
+    public void reconcile() {
+        List<Long> postIds = new ArrayList<>(counters.asMap().keySet());
+        long drift = 0;
+
+        for (int from = 0; from < postIds.size(); from += CHUNK_SIZE) {
+            List<Long> chunk = postIds.subList(from, Math.min(from + CHUNK_SIZE, postIds.size()));
+            Map<Long, LongAdder> cells = new HashMap<>();
+            Map<Long, Long> snapshots = new HashMap<>();
+            for (Long postId : chunk) {
+                LongAdder cell = counters.asMap().get(postId);
+                if (cell != null) {
+                    cells.put(postId, cell);
+                    snapshots.put(postId, cell.sum());
+                }
+            }
+            if (cells.isEmpty()) {
+                continue;
+            }
+            Map<Long, Long> actual = new HashMap<>();
+            for (PostLikeCountView row : postLikeRepository.countLikesByPostIds(List.copyOf(cells.keySet()))) {
+                actual.put(row.getPostId(), row.getLikeCount());
+            }
+
+            for (Map.Entry<Long, LongAdder> entry : cells.entrySet()) {
+                Long postId = entry.getKey();
+                LongAdder cell = entry.getValue();
+                long snapshot = snapshots.get(postId);
+                // Changed or replaced meanwhile: the query may already include those changes
+                if (counters.asMap().get(postId) != cell || cell.sum() != snapshot) {
+                    continue;
+                }
+                long diff = actual.getOrDefault(postId, 0L) - snapshot;
+                if (diff != 0) {
+                    // Relative, so a change landing right now is kept
+                    cell.add(diff);
+                    drift += Math.abs(diff);
+                    corrections.increment();
+                }
+            }
+        }
+
+        lastDrift.set(drift);
+        if (drift != 0) {
+            logger.debug("Reconciled {} cached like counters, drift={}", postIds.size(), drift);
+        }
+    }
+
+    private Map<Long, LongAdder> loadAll(Set<? extends Long> postIds) {
+        Map<Long, LongAdder> cells = new HashMap<>();
+        for (Long postId : postIds) {
+            cells.put(postId, new LongAdder());
+        }
+        List<Long> ids = new ArrayList<>(postIds);
+        for (int from = 0; from < ids.size(); from += CHUNK_SIZE) {
+            List<Long> chunk = ids.subList(from, Math.min(from + CHUNK_SIZE, ids.size()));
+            for (PostLikeCountView row : postRepository.findLikeCountsByIdIn(chunk)) {
+                cells.get(row.getPostId()).add(row.getLikeCount());
+            }
+        }
+        return cells;
+    }
+
+    private LongAdder load(Long postId) {
+        LongAdder cell = new LongAdder();
+        cell.add(postRepository.findLikeCountById(postId).orElse(0L));
+        return cell;
+    }
+}
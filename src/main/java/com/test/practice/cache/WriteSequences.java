@@ -0,0 +1,36 @@
+package com.test.practice.cache;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Write counters per key, for caches whose entries are loaded outside the
+ * write path and then patched in place by it. A loader reads the sequence of
+ * its key before querying and only stores the result if no write was
+ * announced meanwhile; otherwise a write that committed after the query
+ * could miss the entry it should have patched.
+ *
+ * Keys share a fixed number of stripes, so memory does not grow with the
+ * number of keys; a write to another key on the same stripe only costs a
+ * discarded load.
+ */
+final class WriteSequences {
+
+    private static final int STRIPES = 4096;
+
+    private final AtomicLongArray sequences = new AtomicLongArray(STRIPES);
+
+    long read(Long key) {
+        return sequences.get(stripe(key));
+    }
+
+    /**
+     * Announces a write to the key; call before patching its entry.
+     */
+    void bump(Long key) {
+        sequences.incrementAndGet(stripe(key));
+    }
+
+    private static int stripe(Long key) {
+        return Long.hashCode(key * 0x9E3779B97F4A7C15L) & (STRIPES - 1);
+    }
+}
@@ -0,0 +1,210 @@
+package com.test.practice.compression;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Storage format of {@code posts.content_bin}, a binary column.
+ *
+ * A stored value starts with a two byte header, a zero marker and a format:
+ * <ul>
+ * <li>RAW: the UTF-8 text follows,</li>
+ * <li>DEFLATE: the length of the UTF-8 text (4 bytes) and its zlib stream
+ * follow.</li>
+ * </ul>
+ * Values without the marker are LEGACY, plain UTF-8 text as kept in the
+ * original {@code posts.content} text column (text never starts with a NUL
+ * character); they are read as is, and PostContentMigrationService backfills
+ * them into the binary column.
+ *
+ * With compression enabled (app.posts.content-compression.enabled), text of
+ * at least {@code threshold-bytes} is deflated, and kept deflated only if that
+ * is smaller. Reads handle every format whatever the setting, so compression
+ * can be switched off without touching stored rows.
+ */
+@Component
+public class ContentCodec {
+
+    public enum Format {
+        LEGACY, RAW, DEFLATE
+    }
+
+    private static final byte MARKER = 0;
+    private static final byte RAW = 0;
+    private static final byte DEFLATE = 1;
+    private static final int HEADER_BYTES = 2;
+    private static final int LENGTH_BYTES = Integer.BYTES;
+
+    private final boolean enabled;
+    private final int thresholdBytes;
+    private final int level;
+
+    private final Counter logicalBytes;
+    private final Counter storedBytes;
+    private final Timer rawEncodes;
+    private final Timer deflateEncodes;
+    private final Timer[] decodes = new Timer[Format.values().length];
+
+    public ContentCodec(MeterRegistry meterRegistry,
+            @Value("${app.posts.content-compression.enabled:false}") boolean enabled,
+            @Value("${app.posts.content-compression.threshold-bytes:1024}") int thresholdBytes,
+            @Value("${app.posts.content-compression.level:1}") int level) {
+        this.enabled = enabled;
+        this.thresholdBytes = thresholdBytes;
+        this.level = level;
+
+        this.logicalBytes = Counter.builder("posts.content.bytes.logical")
+                .description("UTF-8 bytes of post content written")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        this.storedBytes = Counter.builder("posts.content.bytes.stored")
+                .description("Bytes of post content stored, headers included")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("posts.content.compression.ratio", this, ContentCodec::compressionRatio)
+                .description("Logical over stored bytes of post content written by this instance")
+                .register(meterRegistry);
+        this.rawEncodes = encodeTimer(meterRegistry, Format.RAW);
+        this.deflateEncodes = encodeTimer(meterRegistry, Format.DEFLATE);
+        for (Format format : Format.values()) {
+            decodes[format.ordinal()] = Timer.builder("posts.content.decode")
+                    .description("Time to read post content from its stored form")
+                    .tag("format", format.name().toLowerCase())
+                    .register(meterRegistry);
+        }
+    }
+
+    public byte[] encode(String content) {
+        if (content == null) {
+            return null;
+        }
+        long start = System.nanoTime();
+        byte[] text = content.getBytes(StandardCharsets.UTF_8);
+        byte[] stored = null;
+        if (enabled && text.length >= thresholdBytes) {
+            stored = deflate(text);
+        }
+        Timer timer = stored != null ? deflateEncodes : rawEncodes;
+        if (stored == null) {
+            stored = new byte[HEADER_BYTES + text.length];
+            stored[0] = MARKER;
+            stored[1] = RAW;
+            System.arraycopy(text, 0, stored, HEADER_BYTES, text.length);
+        }
+        timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        logicalBytes.increment(text.length);
+        storedBytes.increment(stored.length);
+        return stored;
+    }
+
+    public String decode(byte[] stored) {
+        if (stored == null) {
+            return null;
+        }
+        long start = System.nanoTime();
+        Format format = formatOf(stored);
+        String content = switch (format) {
+            case LEGACY -> new String(stored, StandardCharsets.UTF_8);
+            case RAW -> new String(stored, HEADER_BYTES, stored.length - HEADER_BYTES, StandardCharsets.UTF_8);
+            case DEFLATE -> new String(inflate(stored), StandardCharsets.UTF_8);
+        };
+        decodes[format.ordinal()].record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return content;
+    }
+
+    public static Format formatOf(byte[] stored) {
+        if (stored.length < HEADER_BYTES || stored[0] != MARKER) {
+            return Format.LEGACY;
+        }
+        return switch (stored[1]) {
+            case RAW -> Format.RAW;
+            case DEFLATE -> Format.DEFLATE;
+            default -> throw new IllegalStateException("Unknown post content format " + stored[1]);
+        };
+    }
+
+    /**
+     * @return false if writing the value again would store it differently,
+     * i.e. it is legacy or raw text that would now be compressed
+     */
+    public boolean isCurrent(byte[] stored) {
+        return switch (formatOf(stored)) {
+            case LEGACY -> false;
+            case RAW -> !enabled || stored.length - HEADER_BYTES < thresholdBytes;
+            case DEFLATE -> true;
+        };
+    }
+
+    // Null if deflating does not make the value smaller
+    private byte[] deflate(byte[] text) {
+        Deflater deflater = new Deflater(level);
+        try {
+            deflater.setInput(text);
+            deflater.finish();
+            int limit = text.length - LENGTH_BYTES;
+            byte[] stored = new byte[HEADER_BYTES + LENGTH_BYTES + Math.max(limit, 0)];
+            int offset = HEADER_BYTES + LENGTH_BYTES;
+            while (!deflater.finished()) {
+                if (offset == stored.length) {
+                    return null;
+                }
+                offset += deflater.deflate(stored, offset, stored.length - offset);
+            }
+            stored[0] = MARKER;
+            stored[1] = DEFLATE;
+            ByteBuffer.wrap(stored, HEADER_BYTES, LENGTH_BYTES).putInt(text.length);
+            return Arrays.copyOf(stored, offset);
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] inflate(byte[] stored) {
+        int length = ByteBuffer.wrap(stored, HEADER_BYTES, LENGTH_BYTES).getInt();
+        byte[] text = new byte[length];
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(stored, HEADER_BYTES + LENGTH_BYTES, stored.length - HEADER_BYTES - LENGTH_BYTES);
+            int offset = 0;
+            while (offset < length) {
+                int inflated = inflater.inflate(text, offset, length - offset);
+                if (inflated == 0 && (inflater.finished() || inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                offset += inflated;
+            }
+            if (offset != length) {
+                throw new IllegalStateException("Corrupt compressed post content");
+            }
+            return text;
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Corrupt compressed post content", e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private double compressionRatio() {
+        double stored = storedBytes.count();
+        return stored > 0 ? logicalBytes.count() / stored : 1.0;
+    }
+
+    private static Timer encodeTimer(MeterRegistry meterRegistry, Format format) {
+        return Timer.builder("posts.content.encode")
+                .description("Time to turn post content into its stored form")
+                .tag("format", format.name().toLowerCase())
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,30 @@
+package com.test.practice.compression;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+import org.springframework.stereotype.Component;
+
+/**
+ * Maps Post.content to its stored form through {@link ContentCodec}. A Spring
+ * bean, so Hibernate gets it with the codec injected.
+ */
+@Component
+@Converter
+public class PostContentConverter implements AttributeConverter<String, byte[]> {
+
+    private final ContentCodec contentCodec;
+
+    public PostContentConverter(ContentCodec contentCodec) {
+        this.contentCodec = contentCodec;
+    }
+
+    @Override
+    public byte[] convertToDatabaseColumn(String content) {
+        return contentCodec.encode(content);
+    }
+
+    @Override
+    public String convertToEntityAttribute(byte[] stored) {
+        return contentCodec.decode(stored);
+    }
+}
@@ -2,7 +2,9 @@ package com.test.practice.controller;
 
 import com.test.practice.dto.CategoryDTO;
 import com.test.practice.dto.PostDTO;
+import com.test.practice.dto.UniqueCommentersDTO;
 import com.test.practice.service.CategoryService;
+import com.test.practice.service.UniqueCommenterService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
@@ -18,6 +20,9 @@ public class CategoryController {
     @Autowired
     private CategoryService categoryService;
 
+    @Autowired
+    private UniqueCommenterService uniqueCommenterService;
+
     @PostMapping
     public ResponseEntity<CategoryDTO> createCategory(@Valid @RequestBody CategoryDTO categoryDTO) {
         CategoryDTO createdCategory = categoryService.createCategory(categoryDTO);
@@ -33,4 +38,10 @@ public class CategoryController {
     public ResponseEntity<List<PostDTO>> getPostsByCategory(@PathVariable Long id) {
         return ResponseEntity.ok(categoryService.getPostsByCategory(id));
     }
+
+    // Distinct commenters across the category's posts, approximate
+    @GetMapping("/{id}/unique-commenters")
+    public ResponseEntity<UniqueCommentersDTO> countUniqueCommenters(@PathVariable Long id) {
+        return ResponseEntity.ok(uniqueCommenterService.countForCategory(id));
+    }
 }
@@ -1,31 +1,172 @@
 package com.test.practice.controller;
 
 import com.test.practice.dto.CommentDTO;
+import com.test.practice.dto.CommentNodeDTO;
+import com.test.practice.dto.CommentReceiptDTO;
+import com.test.practice.dto.CursorPageDTO;
+import com.test.practice.dto.UniqueCommentersDTO;
+import com.test.practice.entity.Comment;
+import com.test.practice.exception.BadRequestException;
+import com.test.practice.service.CommentIngestService;
 import com.test.practice.service.CommentService;
+import com.test.practice.service.CommentThreadService;
+import com.test.practice.service.UniqueCommenterService;
+import com.test.practice.stream.CommentStreamHub;
+import com.test.practice.stream.SseCommentSink;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.time.Duration;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/comments")
 public class CommentController {
 
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int MAX_POST_IDS = 1000;
+    private static final int MAX_PREVIEW_POSTS = 100;
+    private static final int MAX_PREVIEW_SIZE = 10;
+    private static final int MAX_THREADS = 50;
+    private static final int MAX_REPLIES = 500;
+
     private final CommentService commentService;
+    private final CommentThreadService commentThreadService;
+    private final CommentIngestService commentIngestService;
+    private final CommentStreamHub commentStreamHub;
+    private final UniqueCommenterService uniqueCommenterService;
+    private final long streamTimeoutMs;
 
-    public CommentController(CommentService commentService) {
+    public CommentController(CommentService commentService, CommentThreadService commentThreadService,
+            CommentIngestService commentIngestService, CommentStreamHub commentStreamHub,
+            UniqueCommenterService uniqueCommenterService,
+            @Value("${app.comments.stream.timeout:30m}") Duration streamTimeout) {
         this.commentService = commentService;
+        this.commentThreadService = commentThreadService;
+        this.commentIngestService = commentIngestService;
+        this.commentStreamHub = commentStreamHub;
+        this.uniqueCommenterService = uniqueCommenterService;
+        this.streamTimeoutMs = streamTimeout.toMillis();
     }
 
+    // With asynchronous ingestion enabled, top-level comments are journaled and
+    // acknowledged with 202 and a receipt; replies are always written directly
     @PostMapping
-    public ResponseEntity<CommentDTO> addComment(@RequestBody CommentDTO commentDTO) {
+    public ResponseEntity<?> addComment(@Valid @RequestBody CommentDTO commentDTO) {
+        if (commentIngestService.isEnabled() && commentDTO.getParentId() == null) {
+            CommentReceiptDTO receipt = commentIngestService.submit(commentDTO);
+            return new ResponseEntity<>(receipt, HttpStatus.ACCEPTED);
+        }
         CommentDTO createdComment = commentService.addComment(commentDTO);
         return new ResponseEntity<>(createdComment, HttpStatus.CREATED);
     }
 
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> deleteComment(@PathVariable Long id) {
+        commentService.deleteComment(id);
+        return ResponseEntity.noContent().build();
+    }
+
+    // A comment with its replies, nested; maxReplies caps the size of the subtree
+    @GetMapping("/{id}/replies")
+    public ResponseEntity<CommentNodeDTO> getReplies(@PathVariable Long id,
+            @RequestParam(defaultValue = "" + Comment.MAX_DEPTH) int maxDepth,
+            @RequestParam(defaultValue = "50") int maxReplies) {
+        checkThreadLimits(maxDepth, maxReplies);
+        return ResponseEntity.ok(commentThreadService.getSubtree(id, maxDepth, maxReplies));
+    }
+
+    // Comment counts for a whole feed page in one call
+    @GetMapping("/counts")
+    public ResponseEntity<Map<Long, Long>> countComments(@RequestParam List<Long> postIds) {
+        if (postIds.size() > MAX_POST_IDS) {
+            throw new BadRequestException("At most " + MAX_POST_IDS + " postIds per request");
+        }
+        return ResponseEntity.ok(commentService.countComments(postIds));
+    }
+
+    // Latest n comments under each post of a feed page, in one call
+    @GetMapping("/previews")
+    public ResponseEntity<Map<Long, List<CommentDTO>>> getPreviews(@RequestParam List<Long> postIds,
+            @RequestParam(defaultValue = "3") int n) {
+        if (postIds.size() > MAX_PREVIEW_POSTS) {
+            throw new BadRequestException("At most " + MAX_PREVIEW_POSTS + " postIds per request");
+        }
+        if (n < 1 || n > MAX_PREVIEW_SIZE) {
+            throw new BadRequestException("n must be between 1 and " + MAX_PREVIEW_SIZE);
+        }
+        return ResponseEntity.ok(commentService.getPreviews(postIds, n));
+    }
+
+    // Threaded view: pages of top-level comments, newest first, each with its replies
+    @GetMapping("/post/{postId}/threads")
+    public ResponseEntity<CursorPageDTO<CommentNodeDTO>> getThreads(@PathVariable Long postId,
+            @RequestParam(required = false) String after, @RequestParam(defaultValue = "10") int limit,
+            @RequestParam(defaultValue = "" + Comment.MAX_DEPTH) int maxDepth,
+            @RequestParam(defaultValue = "50") int maxReplies) {
+        if (limit < 1 || limit > MAX_THREADS) {
+            throw new BadRequestException("limit must be between 1 and " + MAX_THREADS);
+        }
+        checkThreadLimits(maxDepth, maxReplies);
+        return ResponseEntity.ok(commentThreadService.getThreads(postId, after, limit, maxDepth, maxReplies));
+    }
+
+    // "N people are discussing this": approximate, see UniqueCommentersDTO.standardError
+    @GetMapping("/post/{postId}/unique-commenters")
+    public ResponseEntity<UniqueCommentersDTO> countUniqueCommenters(@PathVariable Long postId) {
+        return ResponseEntity.ok(uniqueCommenterService.countForPost(postId));
+    }
+
+    // Server-Sent Events: a "comment" event for each new comment on the post, and an
+    // "overflow" event with the number of comments skipped when the client fell behind.
+    // Streams end after the timeout; EventSource clients reconnect on their own.
+    @GetMapping(path = "/post/{postId}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamComments(@PathVariable Long postId) {
+        SseEmitter emitter = new SseEmitter(streamTimeoutMs);
+        CommentStreamHub.Subscription subscription = commentStreamHub.subscribe(postId,
+                new SseCommentSink(emitter));
+        emitter.onCompletion(subscription::cancel);
+        emitter.onTimeout(subscription::cancel);
+        emitter.onError(e -> subscription.cancel());
+        return emitter;
+    }
+
+    // Keyset pagination, newest first: pass nextCursor from the previous page as "after".
+    // Delta polling: pass the id of the newest comment seen as "since" to get only
+    // newer comments, oldest first; 304 with no body when there are none.
     @GetMapping("/post/{postId}")
-    public ResponseEntity<List<CommentDTO>> getCommentsByPost(@PathVariable Long postId) {
-        return ResponseEntity.ok(commentService.getCommentsByPostId(postId));
+    public ResponseEntity<CursorPageDTO<CommentDTO>> getCommentsByPost(@PathVariable Long postId,
+            @RequestParam(required = false) String after, @RequestParam(required = false) Long since,
+            @RequestParam(defaultValue = "20") int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new BadRequestException("limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        if (since == null) {
+            return ResponseEntity.ok(commentService.getCommentsByPostId(postId, after, limit));
+        }
+        if (after != null) {
+            throw new BadRequestException("after and since cannot be combined");
+        }
+
+        CursorPageDTO<CommentDTO> delta = commentService.getCommentsSince(postId, since, limit);
+        if (delta.getItems().isEmpty()) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        }
+        return ResponseEntity.ok(delta);
+    }
+
+    private static void checkThreadLimits(int maxDepth, int maxReplies) {
+        if (maxDepth < 0 || maxDepth > Comment.MAX_DEPTH) {
+            throw new BadRequestException("maxDepth must be between 0 and " + Comment.MAX_DEPTH);
+        }
+        if (maxReplies < 0 || maxReplies > MAX_REPLIES) {
+            throw new BadRequestException("maxReplies must be between 0 and " + MAX_REPLIES);
+        }
     }
 }
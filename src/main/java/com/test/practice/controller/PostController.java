@@ -1,6 +1,8 @@
 package com.test.practice.controller;
 
+import com.test.practice.dto.CursorPageDTO;
 import com.test.practice.dto.PostDTO;
+import com.test.practice.exception.BadRequestException;
 // import com.test.practice.entity.Post;
 import com.test.practice.service.PostService;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -16,6 +18,8 @@ import jakarta.validation.Valid;
 @RequestMapping("/users/{userId}/posts")
 public class PostController {
 
+    private static final int MAX_PAGE_SIZE = 100;
+
     @Autowired
     private final PostService postService;
 
@@ -34,4 +38,15 @@ public class PostController {
         Page<PostDTO> posts = postService.getPostsByUserId(userId, pageable);
         return new ResponseEntity<>(posts, HttpStatus.OK);
     }
+
+    // Cursor mode (?mode=cursor): newest first without a total count; pass nextCursor
+    // from the previous page as "after". Cheaper than page mode for deep pages.
+    @GetMapping(params = "mode=cursor")
+    public ResponseEntity<CursorPageDTO<PostDTO>> getPostsByUserIdAfter(@PathVariable Long userId,
+            @RequestParam(required = false) String after, @RequestParam(defaultValue = "20") int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new BadRequestException("limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        return ResponseEntity.ok(postService.getPostsByUserIdAfter(userId, after, limit));
+    }
 }
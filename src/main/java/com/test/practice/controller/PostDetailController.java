@@ -0,0 +1,30 @@
+package com.test.practice.controller;
+
+import com.test.practice.dto.PostDetailDTO;
+import com.test.practice.exception.BadRequestException;
+import com.test.practice.service.PostDetailService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/posts")
+public class PostDetailController {
+
+    private static final int MAX_PAGE_SIZE = 100;
+
+    private final PostDetailService postDetailService;
+
+    public PostDetailController(PostDetailService postDetailService) {
+        this.postDetailService = postDetailService;
+    }
+
+    // Post, author, category, counts and the first comment page in one response
+    @GetMapping("/{id}")
+    public ResponseEntity<PostDetailDTO> getPost(@PathVariable Long id,
+            @RequestParam(defaultValue = "20") int commentLimit) {
+        if (commentLimit < 1 || commentLimit > MAX_PAGE_SIZE) {
+            throw new BadRequestException("commentLimit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        return ResponseEntity.ok(postDetailService.getPostDetail(id, commentLimit));
+    }
+}
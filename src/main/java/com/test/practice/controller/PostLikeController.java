@@ -1,35 +1,91 @@
 package com.test.practice.controller;
 
+import com.test.practice.dto.CursorPageDTO;
+import com.test.practice.dto.LikeBatchRequestDTO;
+import com.test.practice.dto.LikeBatchResultDTO;
+import com.test.practice.dto.LikeResultDTO;
 import com.test.practice.dto.PostLikeDTO;
+import com.test.practice.exception.BadRequestException;
+import com.test.practice.projection.UserSummary;
+import com.test.practice.service.LikeBatchService;
 import com.test.practice.service.PostLikeService;
+import jakarta.validation.Valid;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+import java.util.Map;
+
 @RestController
 @RequestMapping("/likes")
 public class PostLikeController {
 
+    private static final int MAX_POST_IDS = 1000;
+    private static final int MAX_PAGE_SIZE = 100;
+
     private final PostLikeService postLikeService;
+    private final LikeBatchService likeBatchService;
 
-    public PostLikeController(PostLikeService postLikeService) {
+    public PostLikeController(PostLikeService postLikeService, LikeBatchService likeBatchService) {
         this.postLikeService = postLikeService;
+        this.likeBatchService = likeBatchService;
     }
 
+    // 201 when the like was created, 200 when the user had already liked the post
     @PostMapping
-    public ResponseEntity<Void> likePost(@RequestBody PostLikeDTO likeDTO) {
-        postLikeService.likePost(likeDTO);
-        return new ResponseEntity<>(HttpStatus.CREATED);
+    public ResponseEntity<LikeResultDTO> likePost(@RequestBody PostLikeDTO likeDTO) {
+        LikeResultDTO result = postLikeService.likePost(likeDTO);
+        return new ResponseEntity<>(result, result.isChanged() ? HttpStatus.CREATED : HttpStatus.OK);
+    }
+
+    // Statuses: A = applied, U = unchanged, N = user or post not found, X = invalid item
+    @PostMapping("/batch")
+    public ResponseEntity<LikeBatchResultDTO> likeBatch(@Valid @RequestBody LikeBatchRequestDTO request) {
+        return ResponseEntity.ok(likeBatchService.applyBatch(request.getItems()));
     }
 
     @DeleteMapping("/post/{postId}/user/{userId}")
-    public ResponseEntity<Void> unlikePost(@PathVariable Long postId, @PathVariable Long userId) {
-        postLikeService.unlikePost(userId, postId);
-        return new ResponseEntity<>(HttpStatus.NO_CONTENT);
+    public ResponseEntity<LikeResultDTO> unlikePost(@PathVariable Long postId, @PathVariable Long userId) {
+        return ResponseEntity.ok(postLikeService.unlikePost(userId, postId));
+    }
+
+    @GetMapping("/post/{postId}/user/{userId}")
+    public ResponseEntity<Boolean> hasLiked(@PathVariable Long postId, @PathVariable Long userId) {
+        return ResponseEntity.ok(postLikeService.hasLiked(userId, postId));
+    }
+
+    // Liked flag per post for a whole page of posts in one call
+    @GetMapping("/user/{userId}/contains")
+    public ResponseEntity<Map<Long, Boolean>> hasLikedPosts(@PathVariable Long userId,
+            @RequestParam List<Long> postIds) {
+        if (postIds.size() > MAX_POST_IDS) {
+            throw new BadRequestException("At most " + MAX_POST_IDS + " postIds per request");
+        }
+        return ResponseEntity.ok(postLikeService.hasLiked(userId, postIds));
+    }
+
+    // Keyset pagination: pass nextCursor from the previous page as "after"
+    @GetMapping("/post/{postId}/users")
+    public ResponseEntity<CursorPageDTO<UserSummary>> getLikers(@PathVariable Long postId,
+            @RequestParam(required = false) String after, @RequestParam(defaultValue = "20") int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new BadRequestException("limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        return ResponseEntity.ok(postLikeService.getLikers(postId, after, limit));
     }
 
     @GetMapping("/post/{postId}/count")
     public ResponseEntity<Long> countLikes(@PathVariable Long postId) {
         return ResponseEntity.ok(postLikeService.countLikes(postId));
     }
+
+    // Like counts for a whole feed page in one call
+    @GetMapping("/counts")
+    public ResponseEntity<Map<Long, Long>> countLikes(@RequestParam List<Long> postIds) {
+        if (postIds.size() > MAX_POST_IDS) {
+            throw new BadRequestException("At most " + MAX_POST_IDS + " postIds per request");
+        }
+        return ResponseEntity.ok(postLikeService.countLikes(postIds));
+    }
 }
@@ -1,10 +1,13 @@
 package com.test.practice.controller;
 
+import com.test.practice.dto.HotPostDTO;
 import com.test.practice.dto.UserActivityReportDTO;
+import com.test.practice.exception.BadRequestException;
 import com.test.practice.service.PostLikeService;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.util.List;
@@ -23,4 +26,12 @@ public class ReportController {
     public ResponseEntity<List<UserActivityReportDTO>> getTopActiveUsers() {
         return ResponseEntity.ok(postLikeService.getTopActiveUsers());
     }
+
+    @GetMapping("/hot-posts")
+    public ResponseEntity<List<HotPostDTO>> getHotPosts(@RequestParam(defaultValue = "10") int limit) {
+        if (limit < 1 || limit > 100) {
+            throw new BadRequestException("limit must be between 1 and 100");
+        }
+        return ResponseEntity.ok(postLikeService.getHotPosts(limit));
+    }
 }
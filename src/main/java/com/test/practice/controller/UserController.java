@@ -1,7 +1,11 @@
 package com.test.practice.controller;
 
+import com.test.practice.dto.CursorPageDTO;
 import com.test.practice.dto.UserDTO;
 // import com.test.practice.entity.User;
+import com.test.practice.exception.BadRequestException;
+import com.test.practice.projection.UserCommentView;
+import com.test.practice.service.CommentService;
 import com.test.practice.service.UserService;
 
 import jakarta.validation.Valid;
@@ -16,11 +20,15 @@ import java.util.List;
 @RequestMapping("/users")
 public class UserController {
 
+    private static final int MAX_PAGE_SIZE = 100;
+
     private final UserService userService;
+    private final CommentService commentService;
 
     @Autowired
-    public UserController(UserService userService) {
+    public UserController(UserService userService, CommentService commentService) {
         this.userService = userService;
+        this.commentService = commentService;
     }
 
     @PostMapping
@@ -40,6 +48,16 @@ public class UserController {
         return ResponseEntity.ok(user);
     }
 
+    // The user's comments, newest first; pass nextCursor from the previous page as "after"
+    @GetMapping("/{userId}/comments")
+    public ResponseEntity<CursorPageDTO<UserCommentView>> getCommentsByUser(@PathVariable Long userId,
+            @RequestParam(required = false) String after, @RequestParam(defaultValue = "20") int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new BadRequestException("limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        return ResponseEntity.ok(commentService.getCommentsByUserId(userId, after, limit));
+    }
+
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteUser(@PathVariable Long id) {
         userService.deleteUser(id);
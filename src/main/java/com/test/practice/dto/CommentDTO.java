@@ -1,5 +1,8 @@
 package com.test.practice.dto;
 
+import com.test.practice.entity.Comment;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
 import java.time.LocalDateTime;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -12,9 +15,17 @@ import lombok.Builder;
 @Builder
 public class CommentDTO {
     private Long id;
+
+    @NotBlank(message = "Comment text is mandatory")
+    @Size(max = Comment.MAX_TEXT_LENGTH, message = "Comment text must be at most " + Comment.MAX_TEXT_LENGTH
+            + " characters")
     private String text;
+
     private Long userId;
     private String userName;
     private Long postId;
+
+    // Comment being replied to; null for a top-level comment
+    private Long parentId;
     private LocalDateTime createdAt;
 }
@@ -0,0 +1,31 @@
+package com.test.practice.dto;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CommentNodeDTO {
+    private Long id;
+    private String text;
+    private Long userId;
+    private String userName;
+    private Long postId;
+    private Long parentId;
+    private int depth;
+    private LocalDateTime createdAt;
+
+    // Set on the top node when maxReplies cut the replies below it short
+    private boolean truncated;
+
+    // Oldest reply first
+    @Builder.Default
+    private List<CommentNodeDTO> replies = new ArrayList<>();
+}
@@ -0,0 +1,20 @@
+package com.test.practice.dto;
+
+import java.time.LocalDateTime;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+
+// Returned with 202 when a comment is accepted for asynchronous ingestion
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CommentReceiptDTO {
+    // Stored with the comment once it is written
+    private String ingestId;
+    private Long userId;
+    private Long postId;
+    private LocalDateTime createdAt;
+}
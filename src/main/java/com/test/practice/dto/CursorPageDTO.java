@@ -0,0 +1,21 @@
+package com.test.practice.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CursorPageDTO<T> {
+    private List<T> items;
+
+    // Pass as "after" to fetch the next page; null on the last page
+    private String nextCursor;
+
+    private boolean hasMore;
+}
@@ -0,0 +1,20 @@
+package com.test.practice.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class HotPostDTO {
+    private Long postId;
+
+    // Upper bound on likes received in the window
+    private long likes;
+
+    // Maximum overestimation of likes; likes - maxError is a lower bound
+    private long maxError;
+}
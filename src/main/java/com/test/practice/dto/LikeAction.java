@@ -0,0 +1,6 @@
+package com.test.practice.dto;
+
+public enum LikeAction {
+    LIKE,
+    UNLIKE
+}
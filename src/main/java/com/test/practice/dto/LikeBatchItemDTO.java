@@ -0,0 +1,16 @@
+package com.test.practice.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class LikeBatchItemDTO {
+    private Long userId;
+    private Long postId;
+    private LikeAction action;
+}
@@ -0,0 +1,21 @@
+package com.test.practice.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class LikeBatchRequestDTO {
+
+    @NotEmpty(message = "Items must not be empty")
+    @Size(max = 10000, message = "At most 10000 items per batch")
+    private List<LikeBatchItemDTO> items;
+}
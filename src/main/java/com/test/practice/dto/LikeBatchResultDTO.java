@@ -0,0 +1,39 @@
+package com.test.practice.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class LikeBatchResultDTO {
+    public static final char APPLIED = 'A';
+    public static final char UNCHANGED = 'U';
+    public static final char NOT_FOUND = 'N';
+    public static final char INVALID = 'X';
+
+    private int applied;
+    private int unchanged;
+    private int notFound;
+    private int invalid;
+
+    // One status character per request item, in request order
+    private String statuses;
+
+    public static LikeBatchResultDTO of(char[] statuses) {
+        LikeBatchResultDTO result = new LikeBatchResultDTO();
+        for (char status : statuses) {
+            switch (status) {
+                case APPLIED -> result.applied++;
+                case UNCHANGED -> result.unchanged++;
+                case NOT_FOUND -> result.notFound++;
+                default -> result.invalid++;
+            }
+        }
+        result.statuses = new String(statuses);
+        return result;
+    }
+}
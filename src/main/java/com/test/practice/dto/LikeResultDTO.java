@@ -0,0 +1,21 @@
+package com.test.practice.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class LikeResultDTO {
+    private Long userId;
+    private Long postId;
+
+    // State after the call
+    private boolean liked;
+
+    // False when the call was a no-op (already liked / not liked)
+    private boolean changed;
+}
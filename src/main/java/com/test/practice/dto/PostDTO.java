@@ -16,9 +16,15 @@ public class PostDTO {
     @NotBlank(message = "Title must not be blank")
     private String title;
 
+    // Full body; only returned for a single post. Listings carry the excerpt instead.
     @NotBlank(message = "Content must not be blank")
     private String content;
 
+    private String excerpt;
+
     private Long categoryId;
     private String categoryName;
+
+    private Long likeCount;
+    private Long commentCount;
 }
@@ -0,0 +1,21 @@
+package com.test.practice.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PostDetailDTO {
+    // Full post, content included, with its category and counts
+    private PostDTO post;
+
+    private Long authorId;
+    private String authorName;
+
+    // Newest comments first; pass nextCursor to GET /comments/post/{postId} for more
+    private CursorPageDTO<CommentDTO> comments;
+}
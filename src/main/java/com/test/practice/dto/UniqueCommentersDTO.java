@@ -0,0 +1,19 @@
+package com.test.practice.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+
+// Approximate number of distinct commenters, from HyperLogLog sketches
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UniqueCommentersDTO {
+    private long estimate;
+
+    // Relative standard error of the estimate (about 0.023); 95% of estimates
+    // are within twice that of the true count
+    private double standardError;
+}
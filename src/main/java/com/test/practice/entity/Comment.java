@@ -2,13 +2,16 @@ package com.test.practice.entity;
 
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
+import org.hibernate.annotations.ColumnDefault;
 
 @Getter
 @Setter
@@ -16,19 +19,33 @@ import lombok.Builder;
 @AllArgsConstructor
 @Builder
 @Entity
-@Table(name = "comments")
+@Table(name = "comments", indexes = {
+        @Index(name = "idx_comments_post_created_id", columnList = "post_id, created_at, id"),
+        @Index(name = "idx_comments_user_created_id", columnList = "user_id, created_at, id"),
+        @Index(name = "idx_comments_post_depth_created_id", columnList = "post_id, depth, created_at, id"),
+        @Index(name = "idx_comments_root_path", columnList = "root_id, path")
+})
 public class Comment {
 
+    // Deepest reply level; the path column holds MAX_DEPTH + 1 segments
+    public static final int MAX_DEPTH = 49;
+
+    public static final int MAX_TEXT_LENGTH = 255;
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
     @NotBlank(message = "Comment text is mandatory")
+    @Size(max = MAX_TEXT_LENGTH, message = "Comment text must be at most " + MAX_TEXT_LENGTH + " characters")
+    @Column(length = MAX_TEXT_LENGTH)
     private String text;
 
+    // Whole seconds, as stored by the TIMESTAMP column, so values held in
+    // caches and cursors compare equal to what the database returns
     @Column(name = "created_at", nullable = false, updatable = false)
     @Builder.Default
-    private LocalDateTime createdAt = LocalDateTime.now();
+    private LocalDateTime createdAt = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
 
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
@@ -39,4 +56,31 @@ public class Comment {
     @JoinColumn(name = "post_id", nullable = false)
     @JsonIgnore
     private Post post;
+
+    // Replies. The materialized path below is what keeps threads consistent:
+    // deleting a comment removes its subtree by path, so the database does
+    // not enforce this key.
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "parent_id", foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
+    @JsonIgnore
+    private Comment parent;
+
+    // Top-level comment of the thread; its own id for top-level comments.
+    // Set by CommentService once the id is known.
+    @Column(name = "root_id")
+    private Long rootId;
+
+    @Column(nullable = false)
+    @ColumnDefault("0")
+    @Builder.Default
+    private int depth = 0;
+
+    // Ids from the root down to this comment, each zero-padded to 12 digits
+    // and followed by "/", so a subtree is a prefix range in path order
+    @Column(length = (MAX_DEPTH + 1) * 13)
+    private String path;
+
+    // Set for comments accepted through the ingestion journal; makes replay idempotent
+    @Column(name = "ingest_id", length = 36, unique = true, updatable = false)
+    private String ingestId;
 }
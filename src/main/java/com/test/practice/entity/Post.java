@@ -2,8 +2,11 @@ package com.test.practice.entity;
 
 import jakarta.persistence.*;
 import java.util.List;
+import com.test.practice.compression.PostContentConverter;
+import org.hibernate.annotations.LazyGroup;
 import jakarta.validation.constraints.NotBlank;
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.NoArgsConstructor;
@@ -16,9 +19,13 @@ import lombok.Builder;
 @AllArgsConstructor
 @Builder
 @Entity
-@Table(name = "posts")
+@Table(name = "posts", indexes = {
+        @Index(name = "idx_posts_user_id_id", columnList = "user_id, id")
+})
 public class Post {
 
+    public static final int EXCERPT_LENGTH = 200;
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -26,10 +33,40 @@ public class Post {
     @NotBlank(message = "Title is mandatory")
     private String title;
 
-    @NotBlank(message = "Content is mandatory")
-    @Column(columnDefinition = "TEXT")
+    // Binary, optionally compressed; see ContentCodec. Lazy in its own fetch
+    // group (bytecode enhancement), so loading a Post never reads it unless asked.
+    // Null on rows not yet backfilled from legacyContent (db/014)
+    @Basic(fetch = FetchType.LAZY)
+    @LazyGroup("content")
+    @Convert(converter = PostContentConverter.class)
+    @Column(name = "content_bin", columnDefinition = "LONGBLOB")
     private String content;
 
+    // The original text column, still written so instances of the previous
+    // release can read new posts; dropped once content_bin is backfilled. Always
+    // equal to content on write, so it carries the validation
+    @NotBlank(message = "Content is mandatory")
+    @Basic(fetch = FetchType.LAZY)
+    @LazyGroup("content")
+    @Column(name = "content", columnDefinition = "TEXT")
+    @JsonIgnore
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private String legacyContent;
+
+    // Start of content for listings, which never read the content column; set
+    // on insert and whenever content is set
+    @Column(length = EXCERPT_LENGTH)
+    private String excerpt;
+
+    // Maintained by PostLikeService with set-based updates; never written from the entity
+    @Column(name = "like_count", nullable = false, updatable = false)
+    private long likeCount;
+
+    // Maintained by CommentService with set-based updates; never written from the entity
+    @Column(name = "comment_count", nullable = false, updatable = false)
+    private long commentCount;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     @JsonIgnore
@@ -45,4 +82,36 @@ public class Post {
 
     @OneToMany(mappedBy = "post", cascade = CascadeType.ALL)
     private List<PostLike> postLikes;
+
+    // Not a @PreUpdate callback: that would load the lazy content on every update
+    @PrePersist
+    void updateExcerpt() {
+        excerpt = excerptOf(content);
+        legacyContent = content;
+    }
+
+    public String getContent() {
+        return content != null ? content : legacyContent;
+    }
+
+    public void setContent(String content) {
+        this.content = content;
+        this.legacyContent = content;
+        this.excerpt = excerptOf(content);
+    }
+
+    /**
+     * The first EXCERPT_LENGTH characters of content, never ending in half
+     * of a surrogate pair.
+     */
+    public static String excerptOf(String content) {
+        if (content == null || content.length() <= EXCERPT_LENGTH) {
+            return content;
+        }
+        int end = EXCERPT_LENGTH;
+        if (Character.isHighSurrogate(content.charAt(end - 1))) {
+            end--;
+        }
+        return content.substring(0, end);
+    }
 }
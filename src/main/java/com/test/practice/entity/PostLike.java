@@ -16,6 +16,8 @@ import lombok.Builder;
 @Entity
 @Table(name = "post_likes", uniqueConstraints = {
         @UniqueConstraint(columnNames = { "user_id", "post_id" })
+}, indexes = {
+        @Index(name = "idx_post_likes_post_id_id", columnList = "post_id, id")
 })
 public class PostLike {
 
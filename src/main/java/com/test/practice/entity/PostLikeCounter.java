@@ -0,0 +1,45 @@
+package com.test.practice.entity;
+
+import jakarta.persistence.*;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import java.io.Serializable;
+
+/**
+ * One slot of a post's sharded like counter. A post's like count is
+ * {@code posts.like_count} plus the sum of its slots; see SlottedLikeCounter.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@IdClass(PostLikeCounter.Key.class)
+@Table(name = "post_like_counters")
+public class PostLikeCounter {
+
+    public record Key(Long postId, Integer slot) implements Serializable {
+    }
+
+    @Id
+    @Column(name = "post_id")
+    private Long postId;
+
+    @Id
+    private Integer slot;
+
+    @Column(nullable = false)
+    private long cnt;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "post_id", insertable = false, updatable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    @JsonIgnore
+    private Post post;
+}
@@ -41,6 +41,22 @@ public class GlobalExceptionHandler {
                 return ResponseEntity.badRequest().body(errorResponse);
         }
 
+        // ✅ Invalid request parameters (400)
+        @ExceptionHandler(BadRequestException.class)
+        public ResponseEntity<ErrorResponse> handleBadRequestException(
+                        BadRequestException ex,
+                        WebRequest request) {
+
+                ErrorResponse errorResponse = new ErrorResponse(
+                                LocalDateTime.now(),
+                                HttpStatus.BAD_REQUEST.value(),
+                                ErrorType.VALIDATION_ERROR,
+                                ex.getMessage(),
+                                request.getDescription(false).replace("uri=", ""));
+
+                return ResponseEntity.badRequest().body(errorResponse);
+        }
+
         // ✅ Resource not found (404)
         @ExceptionHandler(ResourceNotFoundException.class)
         public ResponseEntity<ErrorResponse> handleResourceNotFoundException(
@@ -0,0 +1,339 @@
+package com.test.practice.ingest;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Local append-only journal of opaque records in memory-mapped segment files.
+ *
+ * Records are framed as [length][crc32][payload] and addressed by a global
+ * byte position; each segment file is named after the position it starts at.
+ * {@link #append} returns once the record is on disk. A single flusher thread
+ * forces whatever has been appended since its last pass, so concurrent
+ * appenders share one fsync (group commit).
+ *
+ * A consumer reads durable records from the checkpoint onwards and moves the
+ * checkpoint forward once they are processed; segments entirely before the
+ * checkpoint are deleted. On open, the tail after the last record with a
+ * valid checksum (a torn write) is discarded.
+ */
+public class CommentJournal implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(CommentJournal.class);
+
+    private static final int HEADER_BYTES = 8;
+    // Written where a record did not fit: the rest of the segment is unused
+    private static final int END_OF_SEGMENT = -1;
+    private static final String SEGMENT_SUFFIX = ".journal";
+    private static final String CHECKPOINT_FILE = "checkpoint";
+
+    public record Entry(byte[] payload, long nextPosition) {
+    }
+
+    private record Segment(long base, FileChannel channel, MappedByteBuffer buffer) {
+    }
+
+    private final Path directory;
+    private final int segmentBytes;
+    private final TreeMap<Long, Segment> segments = new TreeMap<>();
+    private final FileChannel checkpointChannel;
+    private final Thread flusher;
+
+    private Segment active;
+    private long writePosition;
+    private long durablePosition;
+    private long checkpoint;
+    private long pendingRecords;
+    private boolean closed;
+
+    public CommentJournal(Path directory, int segmentBytes) throws IOException {
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        Files.createDirectories(directory);
+        this.checkpointChannel = FileChannel.open(directory.resolve(CHECKPOINT_FILE),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.checkpoint = readCheckpoint();
+
+        recover();
+        this.flusher = new Thread(this::flushLoop, "comment-journal-flusher");
+        this.flusher.setDaemon(true);
+        this.flusher.start();
+    }
+
+    /**
+     * Appends a record and waits until it has been forced to disk.
+     */
+    public void append(byte[] payload) {
+        int recordBytes = HEADER_BYTES + payload.length;
+        if (recordBytes > segmentBytes) {
+            throw new IllegalArgumentException("Record of " + payload.length + " bytes does not fit in a segment");
+        }
+
+        long end;
+        synchronized (this) {
+            if (closed) {
+                throw new IllegalStateException("Journal is closed");
+            }
+            if (writePosition - active.base() + recordBytes > segmentBytes) {
+                roll();
+            }
+            CRC32 crc = new CRC32();
+            crc.update(payload);
+            int offset = (int) (writePosition - active.base());
+            active.buffer().put(offset + HEADER_BYTES, payload);
+            active.buffer().putInt(offset + 4, (int) crc.getValue());
+            active.buffer().putInt(offset, payload.length);
+
+            writePosition += recordBytes;
+            pendingRecords++;
+            end = writePosition;
+            notifyAll();
+        }
+        awaitDurable(end);
+    }
+
+    /**
+     * Durable records starting at the given position, at most max of them.
+     */
+    public synchronized List<Entry> read(long from, int max) {
+        List<Entry> entries = new ArrayList<>();
+        long position = from;
+        while (entries.size() < max && position < durablePosition) {
+            Segment segment = segments.floorEntry(position).getValue();
+            int offset = (int) (position - segment.base());
+            int length = offset + HEADER_BYTES <= segmentBytes ? segment.buffer().getInt(offset) : END_OF_SEGMENT;
+            if (length == END_OF_SEGMENT) {
+                position = segment.base() + segmentBytes;
+                continue;
+            }
+            byte[] payload = new byte[length];
+            segment.buffer().get(offset + HEADER_BYTES, payload);
+            position += HEADER_BYTES + length;
+            entries.add(new Entry(payload, position));
+        }
+        return entries;
+    }
+
+    public synchronized long checkpoint() {
+        return checkpoint;
+    }
+
+    /**
+     * Records that everything before position has been processed.
+     *
+     * @param records number of records between the old and new checkpoint
+     */
+    public synchronized void checkpoint(long position, int records) {
+        try {
+            ByteBuffer buffer = ByteBuffer.allocate(Long.BYTES).putLong(0, position);
+            checkpointChannel.write(buffer, 0);
+            checkpointChannel.force(false);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        checkpoint = position;
+        pendingRecords -= records;
+        deleteSegmentsBefore(position);
+    }
+
+    public synchronized long pendingRecords() {
+        return pendingRecords;
+    }
+
+    public synchronized long pendingBytes() {
+        return writePosition - checkpoint;
+    }
+
+    @Override
+    public void close() throws IOException {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            notifyAll();
+        }
+        try {
+            flusher.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        synchronized (this) {
+            for (Segment segment : segments.values()) {
+                segment.buffer().force();
+                segment.channel().close();
+            }
+            checkpointChannel.close();
+        }
+    }
+
+    private void flushLoop() {
+        while (true) {
+            long target;
+            List<Segment> dirty;
+            synchronized (this) {
+                while (!closed && durablePosition == writePosition) {
+                    try {
+                        wait();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                }
+                if (durablePosition == writePosition) {
+                    return;
+                }
+                target = writePosition;
+                dirty = new ArrayList<>(segments.tailMap(segments.floorKey(durablePosition)).values());
+            }
+
+            // Outside the lock, so appenders keep writing the next batch meanwhile
+            for (Segment segment : dirty) {
+                segment.buffer().force();
+            }
+
+            synchronized (this) {
+                durablePosition = target;
+                notifyAll();
+            }
+        }
+    }
+
+    private synchronized void awaitDurable(long position) {
+        while (durablePosition < position) {
+            if (closed && !flusher.isAlive()) {
+                throw new IllegalStateException("Journal closed before the record was forced");
+            }
+            try {
+                wait();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for the journal", e);
+            }
+        }
+    }
+
+    private void roll() {
+        int offset = (int) (writePosition - active.base());
+        if (offset + Integer.BYTES <= segmentBytes) {
+            active.buffer().putInt(offset, END_OF_SEGMENT);
+        }
+        active = openSegment(active.base() + segmentBytes);
+        writePosition = active.base();
+    }
+
+    private void recover() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : files.filter(f -> f.getFileName().toString().endsWith(SEGMENT_SUFFIX)).toList()) {
+                String name = file.getFileName().toString();
+                long base = Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length()));
+                if (base + segmentBytes <= checkpoint) {
+                    Files.delete(file);
+                } else {
+                    openSegment(base);
+                }
+            }
+        }
+        if (segments.isEmpty()) {
+            openSegment(checkpoint - checkpoint % segmentBytes);
+        }
+
+        // Scan forward from the checkpoint to the last intact record
+        long position = Math.max(checkpoint, segments.firstKey());
+        while (true) {
+            Map.Entry<Long, Segment> entry = segments.floorEntry(position);
+            Segment segment = entry.getValue();
+            int offset = (int) (position - segment.base());
+            int length = offset + HEADER_BYTES <= segmentBytes ? segment.buffer().getInt(offset) : END_OF_SEGMENT;
+            if (length == END_OF_SEGMENT && segments.containsKey(segment.base() + segmentBytes)) {
+                position = segment.base() + segmentBytes;
+                continue;
+            }
+            if (length <= 0 || offset + HEADER_BYTES + length > segmentBytes || !intact(segment, offset, length)) {
+                break;
+            }
+            position += HEADER_BYTES + length;
+            pendingRecords++;
+        }
+
+        active = segments.floorEntry(position).getValue();
+        for (Long base : new ArrayList<>(segments.tailMap(active.base(), false).keySet())) {
+            logger.warn("Discarding comment journal segment {} after a torn record", base);
+            Segment dropped = segments.remove(base);
+            dropped.channel().close();
+            Files.delete(segmentFile(base));
+        }
+        // Clear any torn bytes so they are never mistaken for records
+        for (int i = (int) (position - active.base()); i < segmentBytes; i++) {
+            active.buffer().put(i, (byte) 0);
+        }
+        active.buffer().force();
+
+        writePosition = position;
+        durablePosition = position;
+        if (pendingRecords > 0) {
+            logger.info("Comment journal has {} records to replay from position {}", pendingRecords, checkpoint);
+        }
+    }
+
+    private static boolean intact(Segment segment, int offset, int length) {
+        byte[] payload = new byte[length];
+        segment.buffer().get(offset + HEADER_BYTES, payload);
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        return (int) crc.getValue() == segment.buffer().getInt(offset + 4);
+    }
+
+    private Segment openSegment(long base) {
+        try {
+            FileChannel channel = FileChannel.open(segmentFile(base),
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentBytes);
+            Segment segment = new Segment(base, channel, buffer);
+            segments.put(base, segment);
+            return segment;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void deleteSegmentsBefore(long position) {
+        while (segments.firstKey() + segmentBytes <= position && segments.firstEntry().getValue() != active) {
+            Segment segment = segments.pollFirstEntry().getValue();
+            try {
+                segment.channel().close();
+                Files.deleteIfExists(segmentFile(segment.base()));
+            } catch (IOException e) {
+                logger.warn("Could not delete comment journal segment {}", segment.base(), e);
+            }
+        }
+    }
+
+    private Path segmentFile(long base) {
+        return directory.resolve(String.format("%020d%s", base, SEGMENT_SUFFIX));
+    }
+
+    private long readCheckpoint() throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(Long.BYTES);
+        if (checkpointChannel.read(buffer, 0) < Long.BYTES) {
+            return 0;
+        }
+        return buffer.getLong(0);
+    }
+}
@@ -0,0 +1,37 @@
+package com.test.practice.ingest;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.UUID;
+
+/**
+ * A comment accepted for asynchronous ingestion, as stored in the journal.
+ * The ingest id is assigned on acceptance and stored with the comment, which
+ * makes replaying the journal idempotent.
+ */
+public record JournaledComment(UUID ingestId, Long userId, Long postId, String text, LocalDateTime createdAt) {
+
+    public byte[] encode() {
+        byte[] textBytes = text.getBytes(StandardCharsets.UTF_8);
+        return ByteBuffer.allocate(5 * Long.BYTES + textBytes.length)
+                .putLong(ingestId.getMostSignificantBits())
+                .putLong(ingestId.getLeastSignificantBits())
+                .putLong(userId)
+                .putLong(postId)
+                .putLong(createdAt.toEpochSecond(ZoneOffset.UTC))
+                .put(textBytes)
+                .array();
+    }
+
+    public static JournaledComment decode(byte[] payload) {
+        ByteBuffer buffer = ByteBuffer.wrap(payload);
+        UUID ingestId = new UUID(buffer.getLong(), buffer.getLong());
+        long userId = buffer.getLong();
+        long postId = buffer.getLong();
+        LocalDateTime createdAt = LocalDateTime.ofEpochSecond(buffer.getLong(), 0, ZoneOffset.UTC);
+        String text = StandardCharsets.UTF_8.decode(buffer).toString();
+        return new JournaledComment(ingestId, userId, postId, text, createdAt);
+    }
+}
@@ -0,0 +1,43 @@
+package com.test.practice.pagination;
+
+import com.test.practice.exception.BadRequestException;
+
+import java.nio.ByteBuffer;
+import java.util.Base64;
+
+/**
+ * Opaque keyset cursors: the sort key values of the last row of a page,
+ * packed as longs and base64url encoded. Clients pass them back unchanged;
+ * anything that does not decode to the expected number of values is a 400.
+ */
+public final class CursorCodec {
+
+    private CursorCodec() {
+    }
+
+    public static String encode(long... values) {
+        ByteBuffer buffer = ByteBuffer.allocate(values.length * Long.BYTES);
+        for (long value : values) {
+            buffer.putLong(value);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(buffer.array());
+    }
+
+    public static long[] decode(String cursor, int length) {
+        byte[] bytes;
+        try {
+            bytes = Base64.getUrlDecoder().decode(cursor);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Invalid cursor");
+        }
+        if (bytes.length != length * Long.BYTES) {
+            throw new BadRequestException("Invalid cursor");
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        long[] values = new long[length];
+        for (int i = 0; i < length; i++) {
+            values[i] = buffer.getLong();
+        }
+        return values;
+    }
+}
@@ -0,0 +1,35 @@
+package com.test.practice.pagination;
+
+import com.test.practice.exception.BadRequestException;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Keyset position (createdAt, id) of a row in newest-first order, encoded as
+ * a {@link CursorCodec} cursor of epoch second, nano of second and id.
+ * Decoding checks the ranges, so a tampered cursor is a 400 like any other
+ * invalid one.
+ */
+public record TimeIdCursor(LocalDateTime createdAt, long id) {
+
+    // DATETIME range; anything outside it cannot come from a stored row
+    private static final long MIN_EPOCH_SECOND = LocalDateTime.of(1000, 1, 1, 0, 0).toEpochSecond(ZoneOffset.UTC);
+    private static final long MAX_EPOCH_SECOND =
+            LocalDateTime.of(9999, 12, 31, 23, 59, 59).toEpochSecond(ZoneOffset.UTC);
+    private static final long MAX_NANO = 999_999_999;
+
+    public static String encode(LocalDateTime createdAt, Long id) {
+        return CursorCodec.encode(createdAt.toEpochSecond(ZoneOffset.UTC), createdAt.getNano(), id);
+    }
+
+    public static TimeIdCursor decode(String cursor) {
+        long[] values = CursorCodec.decode(cursor, 3);
+        long epochSecond = values[0];
+        long nano = values[1];
+        if (epochSecond < MIN_EPOCH_SECOND || epochSecond > MAX_EPOCH_SECOND || nano < 0 || nano > MAX_NANO) {
+            throw new BadRequestException("Invalid cursor");
+        }
+        return new TimeIdCursor(LocalDateTime.ofEpochSecond(epochSecond, (int) nano, ZoneOffset.UTC), values[2]);
+    }
+}
@@ -0,0 +1,22 @@
+package com.test.practice.projection;
+
+import java.time.LocalDateTime;
+
+// One comment of a thread, as read by the subtree queries
+public interface CommentNodeView {
+    Long getId();
+
+    String getText();
+
+    LocalDateTime getCreatedAt();
+
+    Long getUserId();
+
+    String getUserName();
+
+    Long getPostId();
+
+    Long getParentId();
+
+    Integer getDepth();
+}
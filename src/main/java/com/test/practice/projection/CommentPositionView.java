@@ -0,0 +1,12 @@
+package com.test.practice.projection;
+
+// Where a comment sits: its post and its place in the thread
+public interface CommentPositionView {
+    Long getId();
+
+    Long getPostId();
+
+    Long getRootId();
+
+    String getPath();
+}
@@ -0,0 +1,19 @@
+package com.test.practice.projection;
+
+import java.time.LocalDateTime;
+
+public interface CommentPreviewView {
+    Long getId();
+
+    String getText();
+
+    LocalDateTime getCreatedAt();
+
+    Long getUserId();
+
+    String getUserName();
+
+    Long getPostId();
+
+    Long getParentId();
+}
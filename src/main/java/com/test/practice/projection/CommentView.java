@@ -13,6 +13,8 @@ public interface CommentView {
 
     PostSummary getPost();
 
+    ParentSummary getParent();
+
     interface UserSummary {
         Long getId();
 
@@ -22,4 +24,8 @@ public interface CommentView {
     interface PostSummary {
         Long getId();
     }
+
+    interface ParentSummary {
+        Long getId();
+    }
 }
@@ -0,0 +1,7 @@
+package com.test.practice.projection;
+
+public interface LikeKeyView {
+    Long getUserId();
+
+    Long getPostId();
+}
@@ -0,0 +1,9 @@
+package com.test.practice.projection;
+
+public interface LikeStateView {
+    Long getUserCount();
+
+    Long getPostCount();
+
+    Long getLikedCount();
+}
@@ -0,0 +1,6 @@
+package com.test.practice.projection;
+
+// A user who liked a post, with the like's id as the keyset position
+public interface LikerView extends UserSummary {
+    Long getLikeId();
+}
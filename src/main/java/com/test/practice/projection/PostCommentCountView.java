@@ -0,0 +1,7 @@
+package com.test.practice.projection;
+
+public interface PostCommentCountView {
+    Long getPostId();
+
+    Long getCommentCount();
+}
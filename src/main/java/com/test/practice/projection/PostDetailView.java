@@ -0,0 +1,25 @@
+package com.test.practice.projection;
+
+// A single post with its author and category in one row, content included
+public interface PostDetailView {
+    Long getId();
+
+    String getTitle();
+
+    String getContent();
+
+    // The text column, for rows whose content is not backfilled yet
+    String getLegacyContent();
+
+    String getExcerpt();
+
+    Long getCommentCount();
+
+    Long getUserId();
+
+    String getUserName();
+
+    Long getCategoryId();
+
+    String getCategoryName();
+}
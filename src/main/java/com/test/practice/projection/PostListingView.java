@@ -0,0 +1,20 @@
+package com.test.practice.projection;
+
+// Flat listing row for posts of several users at once; carries the excerpt, never the content
+public interface PostListingView {
+    Long getUserId();
+
+    Long getId();
+
+    String getTitle();
+
+    String getExcerpt();
+
+    Long getLikeCount();
+
+    Long getCommentCount();
+
+    Long getCategoryId();
+
+    String getCategoryName();
+}
@@ -1,11 +1,16 @@
 package com.test.practice.projection;
 
+// Listing projection: the excerpt only, so listings never select the content column
 public interface PostView {
     Long getId();
 
     String getTitle();
 
-    String getContent();
+    String getExcerpt();
+
+    Long getLikeCount();
+
+    Long getCommentCount();
 
     // Nested projection for Category
     CategorySummary getCategory();
@@ -0,0 +1,18 @@
+package com.test.practice.projection;
+
+import java.time.LocalDateTime;
+
+// A comment in its author's history, with the title of the post it is on
+public interface UserCommentView {
+    Long getId();
+
+    String getText();
+
+    LocalDateTime getCreatedAt();
+
+    Long getPostId();
+
+    String getPostTitle();
+
+    Long getParentId();
+}
@@ -1,21 +1,157 @@
 package com.test.practice.repository;
 
 import com.test.practice.entity.Comment;
+import com.test.practice.projection.CommentNodeView;
+import com.test.practice.projection.CommentPositionView;
+import com.test.practice.projection.CommentPreviewView;
 import com.test.practice.projection.CommentView;
+import com.test.practice.projection.UserCommentView;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
-public interface CommentRepository extends JpaRepository<Comment, Long> {
+public interface CommentRepository extends JpaRepository<Comment, Long>, CommentRepositoryCustom {
 
     // JPA Derived Query
     List<CommentView> findByPostId(Long postId);
 
-    // HQL Query with JOIN FETCH to optimize performance (avoid N+1)
-    // Note: When using Interface Projections with custom @Query, ensure aliases
-    // match getters if not standard
-    @Query("SELECT c FROM Comment c JOIN FETCH c.user WHERE c.post.id = :postId ORDER BY c.createdAt DESC")
-    List<CommentView> findCommentsWithUserByPostId(@Param("postId") Long postId);
+    // HQL Query with JOIN FETCH to optimize performance (avoid N+1).
+    // First page of a post's comments, newest first; the sort matches
+    // idx_comments_post_created_id so the limit stops the index scan early.
+    @Query("""
+            SELECT c FROM Comment c JOIN FETCH c.user
+            WHERE c.post.id = :postId
+            ORDER BY c.createdAt DESC, c.id DESC
+            """)
+    List<CommentView> findCommentsWithUserByPostId(@Param("postId") Long postId, Limit limit);
+
+    // Keyset page: comments strictly after (createdAt, id) in the same order
+    @Query("""
+            SELECT c FROM Comment c JOIN FETCH c.user
+            WHERE c.post.id = :postId
+              AND (c.createdAt < :createdAt OR (c.createdAt = :createdAt AND c.id < :id))
+            ORDER BY c.createdAt DESC, c.id DESC
+            """)
+    List<CommentView> findCommentsWithUserByPostIdAfter(@Param("postId") Long postId,
+            @Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Limit limit);
+
+    // Comments stored by the ingest drain, looked up by ingest id to stream them after the commit
+    @Query("SELECT c FROM Comment c JOIN FETCH c.user WHERE c.ingestId IN :ingestIds ORDER BY c.id")
+    List<CommentView> findWithUserByIngestIds(@Param("ingestIds") Collection<String> ingestIds);
+
+    // A user's comments, newest first, with the post title joined in; the
+    // sort matches idx_comments_user_created_id
+    @Query("""
+            SELECT c.id AS id, c.text AS text, c.createdAt AS createdAt, p.id AS postId,
+                   p.title AS postTitle, c.parent.id AS parentId
+            FROM Comment c JOIN c.post p
+            WHERE c.user.id = :userId
+            ORDER BY c.createdAt DESC, c.id DESC
+            """)
+    List<UserCommentView> findByUserIdNewestFirst(@Param("userId") Long userId, Limit limit);
+
+    @Query("""
+            SELECT c.id AS id, c.text AS text, c.createdAt AS createdAt, p.id AS postId,
+                   p.title AS postTitle, c.parent.id AS parentId
+            FROM Comment c JOIN c.post p
+            WHERE c.user.id = :userId
+              AND (c.createdAt < :createdAt OR (c.createdAt = :createdAt AND c.id < :id))
+            ORDER BY c.createdAt DESC, c.id DESC
+            """)
+    List<UserCommentView> findByUserIdNewestFirstAfter(@Param("userId") Long userId,
+            @Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Limit limit);
+
+    // Delta polling: comments newer than the client's last seen id, oldest
+    // first. A range scan on the post_id foreign key index, which InnoDB
+    // stores as (post_id, id).
+    @Query("""
+            SELECT c FROM Comment c JOIN FETCH c.user
+            WHERE c.post.id = :postId AND c.id > :sinceId
+            ORDER BY c.id
+            """)
+    List<CommentView> findCommentsWithUserByPostIdSince(@Param("postId") Long postId,
+            @Param("sinceId") Long sinceId, Limit limit);
+
+    // Native Query: latest n comments of each post in one round trip. The
+    // window runs over idx_comments_post_created_id, already in rank order.
+    @Query(value = """
+            SELECT ranked.id AS id, ranked.text AS text, ranked.created_at AS createdAt,
+                   ranked.user_id AS userId, ranked.user_name AS userName, ranked.post_id AS postId,
+                   ranked.parent_id AS parentId
+            FROM (
+                SELECT c.id, c.text, c.created_at, c.user_id, u.name AS user_name, c.post_id, c.parent_id,
+                       ROW_NUMBER() OVER (PARTITION BY c.post_id ORDER BY c.created_at DESC, c.id DESC) AS rn
+                FROM comments c
+                JOIN users u ON u.id = c.user_id
+                WHERE c.post_id IN (:postIds)
+            ) ranked
+            WHERE ranked.rn <= :n
+            ORDER BY ranked.post_id, ranked.rn
+            """, nativeQuery = true)
+    List<CommentPreviewView> findLatestByPostIds(@Param("postIds") Collection<Long> postIds, @Param("n") int n);
+
+    // Top-level comments of a post, newest first, one keyset page at a time
+    @Query("""
+            SELECT c FROM Comment c JOIN FETCH c.user
+            WHERE c.post.id = :postId AND c.depth = 0
+            ORDER BY c.createdAt DESC, c.id DESC
+            """)
+    List<CommentView> findRootsByPostId(@Param("postId") Long postId, Limit limit);
+
+    @Query("""
+            SELECT c FROM Comment c JOIN FETCH c.user
+            WHERE c.post.id = :postId AND c.depth = 0
+              AND (c.createdAt < :createdAt OR (c.createdAt = :createdAt AND c.id < :id))
+            ORDER BY c.createdAt DESC, c.id DESC
+            """)
+    List<CommentView> findRootsByPostIdAfter(@Param("postId") Long postId,
+            @Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Limit limit);
+
+    // Native Query: a comment and its replies down to maxDepth, in path order
+    @Query(value = """
+            SELECT c.id AS id, c.text AS text, c.created_at AS createdAt, c.user_id AS userId,
+                   u.name AS userName, c.post_id AS postId, c.parent_id AS parentId, c.depth AS depth
+            FROM comments c
+            JOIN users u ON u.id = c.user_id
+            WHERE c.root_id = :rootId AND c.path LIKE :pathPrefix AND c.depth <= :maxDepth
+            ORDER BY c.path
+            LIMIT :maxNodes
+            """, nativeQuery = true)
+    List<CommentNodeView> findSubtree(@Param("rootId") Long rootId, @Param("pathPrefix") String pathPrefix,
+            @Param("maxDepth") int maxDepth, @Param("maxNodes") int maxNodes);
+
+    @Modifying
+    @Query(value = "DELETE FROM comments WHERE root_id = :rootId AND path LIKE :pathPrefix", nativeQuery = true)
+    int deleteSubtree(@Param("rootId") Long rootId, @Param("pathPrefix") String pathPrefix);
+
+    @Query("SELECT MAX(c.id) FROM Comment c WHERE c.post.id = :postId")
+    Optional<Long> findMaxIdByPostId(@Param("postId") Long postId);
+
+    // A user's comments, parents before their replies
+    @Query(value = """
+            SELECT id, post_id AS postId, root_id AS rootId, path
+            FROM comments
+            WHERE user_id = :userId
+            ORDER BY depth
+            """, nativeQuery = true)
+    List<CommentPositionView> findPositionsByUserId(@Param("userId") Long userId);
+
+    @Query(value = "SELECT DISTINCT user_id FROM comments WHERE post_id = :postId", nativeQuery = true)
+    List<Long> findCommenterIdsByPostId(@Param("postId") Long postId);
+
+    @Query(value = "SELECT DISTINCT user_id FROM comments WHERE post_id IN (:postIds)", nativeQuery = true)
+    List<Long> findCommenterIdsByPostIds(@Param("postIds") Collection<Long> postIds);
+
+    // Returns the number of rows removed, so concurrent deletes of the same
+    // comment adjust the post's comment_count only once
+    @Modifying
+    @Query(value = "DELETE FROM comments WHERE id = :id", nativeQuery = true)
+    int deleteByIdNative(@Param("id") Long id);
 }
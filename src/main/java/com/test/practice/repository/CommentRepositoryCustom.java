@@ -0,0 +1,36 @@
+package com.test.practice.repository;
+
+import com.test.practice.ingest.JournaledComment;
+import com.test.practice.projection.CommentNodeView;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Bulk comment writes for journal ingestion, sent as JDBC batches, and the
+ * thread query whose shape depends on the number of threads.
+ */
+public interface CommentRepositoryCustom {
+
+    /**
+     * Inserts top-level comments as one JDBC batch, followed by one batch
+     * filling in their root id and path from the generated ids.
+     */
+    void insertIngested(List<JournaledComment> comments);
+
+    /**
+     * @return the ingest ids among the given ones that are already stored
+     */
+    List<String> findExistingIngestIds(Collection<String> ingestIds);
+
+    /**
+     * The threads under a page of top-level comments, each cut to its first
+     * maxNodes comments down to maxDepth in path order (so every kept reply's
+     * parent is kept too). Each thread is its own range scan of
+     * idx_comments_root_path stopped by its own LIMIT, combined with UNION
+     * ALL, so the cost follows maxNodes rather than the size of the threads.
+     *
+     * @return rows ordered by thread, then path
+     */
+    List<CommentNodeView> findThreads(List<Long> rootIds, int maxDepth, int maxNodes);
+}
@@ -0,0 +1,135 @@
+package com.test.practice.repository;
+
+import com.test.practice.ingest.JournaledComment;
+import com.test.practice.projection.CommentNodeView;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+public class CommentRepositoryImpl implements CommentRepositoryCustom {
+
+    private static final String INSERT_INGESTED = """
+            INSERT INTO comments (text, created_at, user_id, post_id, depth, ingest_id)
+            VALUES (?, ?, ?, ?, 0, ?)
+            """;
+    // Same layout as CommentService.pathSegment
+    private static final String COMPLETE_PATH = """
+            UPDATE comments SET root_id = id, path = CONCAT(LPAD(CAST(id AS CHAR(12)), 12, '0'), '/')
+            WHERE ingest_id = ?
+            """;
+    private static final String FIND_INGEST_IDS = "SELECT ingest_id FROM comments WHERE ingest_id IN (:ingestIds)";
+    // One bounded scan per thread; the query joins as many as there are threads
+    private static final String THREAD_SCAN = """
+            (SELECT c.id, c.text, c.created_at, c.user_id, u.name AS user_name, c.post_id, c.parent_id, c.depth,
+                    c.root_id, c.path
+             FROM comments c
+             JOIN users u ON u.id = c.user_id
+             WHERE c.root_id = ? AND c.depth <= ?
+             ORDER BY c.path
+             LIMIT ?)
+            """;
+
+    private record CommentNode(Long id, String text, LocalDateTime createdAt, Long userId, String userName,
+            Long postId, Long parentId, Integer depth) implements CommentNodeView {
+
+        @Override
+        public Long getId() {
+            return id;
+        }
+
+        @Override
+        public String getText() {
+            return text;
+        }
+
+        @Override
+        public LocalDateTime getCreatedAt() {
+            return createdAt;
+        }
+
+        @Override
+        public Long getUserId() {
+            return userId;
+        }
+
+        @Override
+        public String getUserName() {
+            return userName;
+        }
+
+        @Override
+        public Long getPostId() {
+            return postId;
+        }
+
+        @Override
+        public Long getParentId() {
+            return parentId;
+        }
+
+        @Override
+        public Integer getDepth() {
+            return depth;
+        }
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    public CommentRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+    }
+
+    @Override
+    public void insertIngested(List<JournaledComment> comments) {
+        if (comments.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT_INGESTED, comments.stream()
+                .map(comment -> new Object[] { comment.text(), comment.createdAt(), comment.userId(),
+                        comment.postId(), comment.ingestId().toString() })
+                .toList());
+        jdbcTemplate.batchUpdate(COMPLETE_PATH, comments.stream()
+                .map(comment -> new Object[] { comment.ingestId().toString() })
+                .toList());
+    }
+
+    @Override
+    public List<String> findExistingIngestIds(Collection<String> ingestIds) {
+        if (ingestIds.isEmpty()) {
+            return List.of();
+        }
+        return namedJdbcTemplate.queryForList(FIND_INGEST_IDS, Map.of("ingestIds", ingestIds), String.class);
+    }
+
+    @Override
+    public List<CommentNodeView> findThreads(List<Long> rootIds, int maxDepth, int maxNodes) {
+        if (rootIds.isEmpty()) {
+            return List.of();
+        }
+        String sql = "SELECT * FROM (" + String.join(" UNION ALL ", Collections.nCopies(rootIds.size(), THREAD_SCAN))
+                + ") t ORDER BY t.root_id, t.path";
+        List<Object> args = new ArrayList<>(rootIds.size() * 3);
+        for (Long rootId : rootIds) {
+            args.add(rootId);
+            args.add(maxDepth);
+            args.add(maxNodes);
+        }
+        return jdbcTemplate.query(sql, (rs, rowNum) -> new CommentNode(
+                rs.getLong("id"),
+                rs.getString("text"),
+                rs.getObject("created_at", LocalDateTime.class),
+                rs.getLong("user_id"),
+                rs.getString("user_name"),
+                rs.getLong("post_id"),
+                rs.getObject("parent_id", Long.class),
+                rs.getInt("depth")), args.toArray());
+    }
+}
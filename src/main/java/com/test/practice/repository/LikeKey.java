@@ -0,0 +1,7 @@
+package com.test.practice.repository;
+
+/**
+ * Identifies one row of post_likes by its natural key.
+ */
+public record LikeKey(Long userId, Long postId) {
+}
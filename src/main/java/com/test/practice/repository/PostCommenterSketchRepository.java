@@ -0,0 +1,8 @@
+package com.test.practice.repository;
+
+import com.test.practice.entity.PostCommenterSketch;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface PostCommenterSketchRepository
+        extends JpaRepository<PostCommenterSketch, Long>, PostCommenterSketchRepositoryCustom {
+}
@@ -0,0 +1,27 @@
+package com.test.practice.repository;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+
+public interface PostCommenterSketchRepositoryCustom {
+
+    Optional<byte[]> findRegisters(Long postId);
+
+    /**
+     * Registers of the posts that have a sketch, by post id.
+     */
+    Map<Long, byte[]> findRegistersByPostIds(Collection<Long> postIds);
+
+    /**
+     * Reads the registers and locks the row until the transaction ends.
+     */
+    Optional<byte[]> lockRegisters(Long postId);
+
+    /**
+     * @return false if a concurrent writer created the row first
+     */
+    boolean insertRegisters(Long postId, byte[] registers);
+
+    void updateRegisters(Long postId, byte[] registers);
+}
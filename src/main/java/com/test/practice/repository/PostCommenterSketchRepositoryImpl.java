@@ -0,0 +1,69 @@
+package com.test.practice.repository;
+
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+public class PostCommenterSketchRepositoryImpl implements PostCommenterSketchRepositoryCustom {
+
+    private static final String FIND_REGISTERS = "SELECT registers FROM post_commenter_sketches WHERE post_id = ?";
+    private static final String FIND_REGISTERS_IN =
+            "SELECT post_id, registers FROM post_commenter_sketches WHERE post_id IN (:postIds)";
+    private static final String LOCK_REGISTERS = FIND_REGISTERS + " FOR UPDATE";
+    private static final String INSERT_REGISTERS =
+            "INSERT INTO post_commenter_sketches (post_id, registers) VALUES (?, ?)";
+    private static final String UPDATE_REGISTERS = "UPDATE post_commenter_sketches SET registers = ? WHERE post_id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    public PostCommenterSketchRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+    }
+
+    @Override
+    public Optional<byte[]> findRegisters(Long postId) {
+        return first(jdbcTemplate.queryForList(FIND_REGISTERS, byte[].class, postId));
+    }
+
+    @Override
+    public Map<Long, byte[]> findRegistersByPostIds(Collection<Long> postIds) {
+        Map<Long, byte[]> registers = new HashMap<>();
+        if (!postIds.isEmpty()) {
+            namedJdbcTemplate.query(FIND_REGISTERS_IN, Map.of("postIds", postIds),
+                    rs -> { registers.put(rs.getLong("post_id"), rs.getBytes("registers")); });
+        }
+        return registers;
+    }
+
+    @Override
+    public Optional<byte[]> lockRegisters(Long postId) {
+        return first(jdbcTemplate.queryForList(LOCK_REGISTERS, byte[].class, postId));
+    }
+
+    @Override
+    public boolean insertRegisters(Long postId, byte[] registers) {
+        try {
+            jdbcTemplate.update(INSERT_REGISTERS, postId, registers);
+            return true;
+        } catch (DuplicateKeyException e) {
+            return false;
+        }
+    }
+
+    @Override
+    public void updateRegisters(Long postId, byte[] registers) {
+        jdbcTemplate.update(UPDATE_REGISTERS, registers, postId);
+    }
+
+    private static Optional<byte[]> first(List<byte[]> rows) {
+        return rows.isEmpty() ? Optional.empty() : Optional.of(rows.get(0));
+    }
+}
@@ -0,0 +1,15 @@
+package com.test.practice.repository;
+
+import com.test.practice.entity.PostLikeCounter;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.List;
+
+public interface PostLikeCounterRepository
+        extends JpaRepository<PostLikeCounter, PostLikeCounter.Key>, PostLikeCounterRepositoryCustom {
+
+    // Slot rows are kept at zero after a fold; only posts with something to fold
+    @Query("SELECT DISTINCT c.postId FROM PostLikeCounter c WHERE c.cnt <> 0")
+    List<Long> findSlottedPostIds();
+}
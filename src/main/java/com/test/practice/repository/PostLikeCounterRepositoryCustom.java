@@ -0,0 +1,20 @@
+package com.test.practice.repository;
+
+public interface PostLikeCounterRepositoryCustom {
+
+    /**
+     * Adds delta to one slot of a post's counter, creating the slot row on
+     * first use, in a single upsert.
+     */
+    void incrementSlot(Long postId, int slot, long delta);
+
+    /**
+     * Moves the sum of a post's slots into {@code posts.like_count} and
+     * subtracts what was moved from each slot. Slot rows are locked first and
+     * kept, so increments that race with the fold wait for it and then find
+     * their row in place.
+     *
+     * @return the amount moved
+     */
+    long foldSlots(Long postId);
+}
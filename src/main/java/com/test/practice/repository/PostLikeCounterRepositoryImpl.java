@@ -0,0 +1,46 @@
+package com.test.practice.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class PostLikeCounterRepositoryImpl implements PostLikeCounterRepositoryCustom {
+
+    // One statement whether or not the slot row exists: an UPDATE-then-INSERT
+    // fallback takes gap locks on a missing row and deadlocks under InnoDB
+    private static final String INCREMENT_SLOT =
+            "INSERT INTO post_like_counters (post_id, slot, cnt) VALUES (?, ?, ?) ON DUPLICATE KEY UPDATE cnt = cnt + ?";
+    private static final String LOCK_SLOTS =
+            "SELECT slot, cnt FROM post_like_counters WHERE post_id = ? AND cnt <> 0 FOR UPDATE";
+    private static final String DRAIN_SLOT = "UPDATE post_like_counters SET cnt = cnt - ? WHERE post_id = ? AND slot = ?";
+    private static final String ADJUST_LIKE_COUNT = "UPDATE posts SET like_count = like_count + ? WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public PostLikeCounterRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void incrementSlot(Long postId, int slot, long delta) {
+        jdbcTemplate.update(INCREMENT_SLOT, postId, slot, delta, delta);
+    }
+
+    @Override
+    public long foldSlots(Long postId) {
+        List<Object[]> drains = new ArrayList<>();
+        jdbcTemplate.query(LOCK_SLOTS, rs -> {
+            drains.add(new Object[] { rs.getLong("cnt"), postId, rs.getInt("slot") });
+        }, postId);
+        if (drains.isEmpty()) {
+            return 0;
+        }
+        long sum = drains.stream().mapToLong(args -> (Long) args[0]).sum();
+        if (sum != 0) {
+            jdbcTemplate.update(ADJUST_LIKE_COUNT, sum, postId);
+        }
+        jdbcTemplate.batchUpdate(DRAIN_SLOT, drains);
+        return sum;
+    }
+}
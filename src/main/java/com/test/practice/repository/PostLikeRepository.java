@@ -3,15 +3,20 @@ package com.test.practice.repository;
 import com.test.practice.dto.PostLikeDTO;
 import com.test.practice.dto.UserActivityReportDTO;
 import com.test.practice.entity.PostLike;
+import com.test.practice.projection.LikeKeyView;
+import com.test.practice.projection.LikeStateView;
+import com.test.practice.projection.LikerView;
+import com.test.practice.projection.PostLikeCountView;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 
-public interface PostLikeRepository extends JpaRepository<PostLike, Long> {
+public interface PostLikeRepository extends JpaRepository<PostLike, Long>, PostLikeRepositoryCustom {
 
     // JPA Derived Query
     boolean existsByUserIdAndPostId(Long userId, Long postId);
@@ -20,6 +25,52 @@ public interface PostLikeRepository extends JpaRepository<PostLike, Long> {
     @Query(value = "SELECT COUNT(*) FROM post_likes WHERE post_id = :postId", nativeQuery = true)
     Long countLikesByPostId(@Param("postId") Long postId);
 
+    // Native Query: Count likes for many posts in one round trip.
+    // Posts without likes are absent from the result.
+    @Query(value = """
+            SELECT post_id AS postId, COUNT(*) AS likeCount
+            FROM post_likes
+            WHERE post_id IN (:postIds)
+            GROUP BY post_id
+            """, nativeQuery = true)
+    List<PostLikeCountView> countLikesByPostIds(@Param("postIds") Collection<Long> postIds);
+
+    // Native Query: whether the user and post exist and whether the like
+    // exists, in a single round trip
+    @Query(value = """
+            SELECT
+                (SELECT COUNT(*) FROM users WHERE id = :userId) AS userCount,
+                (SELECT COUNT(*) FROM posts WHERE id = :postId) AS postCount,
+                (SELECT COUNT(*) FROM post_likes WHERE user_id = :userId AND post_id = :postId) AS likedCount
+            """, nativeQuery = true)
+    LikeStateView findLikeState(@Param("userId") Long userId, @Param("postId") Long postId);
+
+    // Superset of the likes between the given users and posts; callers filter
+    // down to the exact (user, post) pairs they asked about
+    @Query(value = """
+            SELECT user_id AS userId, post_id AS postId
+            FROM post_likes
+            WHERE user_id IN (:userIds) AND post_id IN (:postIds)
+            """, nativeQuery = true)
+    List<LikeKeyView> findLikesAmong(@Param("userIds") Collection<Long> userIds,
+            @Param("postIds") Collection<Long> postIds);
+
+    // Native Query: keyset page of a post's likers, newest like first. Seeks on
+    // idx_post_likes_post_id_id, so the cost does not grow with the page number.
+    @Query(value = """
+            SELECT pl.id AS likeId, u.id AS id, u.name AS name, u.email AS email
+            FROM post_likes pl
+            JOIN users u ON u.id = pl.user_id
+            WHERE pl.post_id = :postId AND pl.id < :beforeLikeId
+            ORDER BY pl.id DESC
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<LikerView> findLikers(@Param("postId") Long postId, @Param("beforeLikeId") Long beforeLikeId,
+            @Param("limit") int limit);
+
+    @Query(value = "SELECT post_id FROM post_likes WHERE user_id = :userId", nativeQuery = true)
+    List<Long> findPostIdsByUserId(@Param("userId") Long userId);
+
     // Native Query: Report - Top 5 active users (Commented + Liked)
     // demonstrates complex native query mapping to Interface-based DTO
     @Query(value = """
@@ -39,5 +90,5 @@ public interface PostLikeRepository extends JpaRepository<PostLike, Long> {
     @Modifying
     @Transactional
     @Query(value = "DELETE FROM post_likes WHERE user_id = :userId AND post_id = :postId", nativeQuery = true)
-    void deleteLikeNative(@Param("userId") Long userId, @Param("postId") Long postId);
+    int deleteLikeNative(@Param("userId") Long userId, @Param("postId") Long postId);
 }
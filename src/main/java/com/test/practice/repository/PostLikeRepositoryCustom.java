@@ -0,0 +1,33 @@
+package com.test.practice.repository;
+
+import java.util.List;
+
+/**
+ * Like writes that need plain JDBC semantics: a failed statement must not mark
+ * the surrounding JPA transaction rollback-only, and bulk writes go out as
+ * JDBC batches instead of one persist per row.
+ */
+public interface PostLikeRepositoryCustom {
+
+    /**
+     * Inserts the like in a single statement.
+     *
+     * @return true if a row was inserted, false if the user already liked the post
+     * @throws org.springframework.dao.DataIntegrityViolationException if the user or post does not exist
+     */
+    boolean insertLikeIfAbsent(Long userId, Long postId);
+
+    /**
+     * Inserts all likes as one JDBC batch. Fails as a whole on a duplicate.
+     *
+     * @return rows affected per key, in order
+     */
+    int[] insertLikes(List<LikeKey> keys);
+
+    /**
+     * Deletes all likes as one JDBC batch.
+     *
+     * @return rows affected per key, in order
+     */
+    int[] deleteLikes(List<LikeKey> keys);
+}
@@ -0,0 +1,48 @@
+package com.test.practice.repository;
+
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+public class PostLikeRepositoryImpl implements PostLikeRepositoryCustom {
+
+    private static final String INSERT_LIKE = "INSERT INTO post_likes (user_id, post_id) VALUES (?, ?)";
+    private static final String DELETE_LIKE = "DELETE FROM post_likes WHERE user_id = ? AND post_id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public PostLikeRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public boolean insertLikeIfAbsent(Long userId, Long postId) {
+        try {
+            return jdbcTemplate.update(INSERT_LIKE, userId, postId) > 0;
+        } catch (DuplicateKeyException e) {
+            // uk_post_likes_user_post: already liked, possibly by a concurrent request
+            return false;
+        }
+    }
+
+    @Override
+    public int[] insertLikes(List<LikeKey> keys) {
+        return batch(INSERT_LIKE, keys);
+    }
+
+    @Override
+    public int[] deleteLikes(List<LikeKey> keys) {
+        return batch(DELETE_LIKE, keys);
+    }
+
+    private int[] batch(String sql, List<LikeKey> keys) {
+        if (keys.isEmpty()) {
+            return new int[0];
+        }
+        List<Object[]> args = keys.stream()
+                .map(key -> new Object[] { key.userId(), key.postId() })
+                .toList();
+        return jdbcTemplate.batchUpdate(sql, args);
+    }
+}
@@ -1,26 +1,119 @@
 package com.test.practice.repository;
 
 import com.test.practice.entity.Post;
+import com.test.practice.projection.PostCommentCountView;
+import com.test.practice.projection.PostDetailView;
+import com.test.practice.projection.PostLikeCountView;
+import com.test.practice.projection.PostListingView;
 import com.test.practice.projection.PostView;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 public interface PostRepository
-        extends JpaRepository<Post, Long>, org.springframework.data.jpa.repository.JpaSpecificationExecutor<Post> {
+        extends JpaRepository<Post, Long>, org.springframework.data.jpa.repository.JpaSpecificationExecutor<Post>,
+        PostRepositoryCustom {
     Page<PostView> findByUserId(Long userId, Pageable pageable);
 
+    // Keyset page of a user's posts, newest first, seeking on idx_posts_user_id_id.
+    // A Slice reads one extra row to know whether more follow and runs no count.
+    Slice<PostView> findByUserIdAndIdLessThanOrderByIdDesc(Long userId, Long id, Pageable pageable);
+
     List<PostView> findByCategoryId(Long categoryId);
 
+    // Posts of several users in one query, for user listings
+    @Query("""
+            SELECT p.user.id AS userId, p.id AS id, p.title AS title, p.excerpt AS excerpt,
+                   p.likeCount AS likeCount, p.commentCount AS commentCount,
+                   c.id AS categoryId, c.name AS categoryName
+            FROM Post p LEFT JOIN p.category c
+            WHERE p.user.id IN :userIds
+            ORDER BY p.id
+            """)
+    List<PostListingView> findListingsByUserIdIn(@Param("userIds") Collection<Long> userIds);
+
+    @Query("SELECT p.id FROM Post p WHERE p.category.id = :categoryId AND p.commentCount > 0")
+    List<Long> findCommentedIdsByCategoryId(@Param("categoryId") Long categoryId);
+
+    // Post, author and category in one row for the post detail view; comments are paged separately
+    @Query("""
+            SELECT p.id AS id, p.title AS title, p.content AS content, p.legacyContent AS legacyContent,
+                   p.excerpt AS excerpt,
+                   p.commentCount AS commentCount, u.id AS userId, u.name AS userName,
+                   c.id AS categoryId, c.name AS categoryName
+            FROM Post p JOIN p.user u LEFT JOIN p.category c
+            WHERE p.id = :id
+            """)
+    Optional<PostDetailView> findDetailById(@Param("id") Long id);
+
     @EntityGraph(attributePaths = { "user", "comments" })
     Optional<Post> findWithUserAndCommentsById(Long id);
 
     @Query("SELECT p FROM Post p JOIN FETCH p.user")
     List<Post> findAllWithUserFetchJoin();
+
+    // like_count plus any slots of a sharded counter (see SlottedLikeCounter)
+    @Query("""
+            SELECT p.likeCount + COALESCE((SELECT SUM(c.cnt) FROM PostLikeCounter c WHERE c.postId = p.id), 0)
+            FROM Post p WHERE p.id = :postId
+            """)
+    Optional<Long> findLikeCountById(@Param("postId") Long postId);
+
+    // Primary key lookups of the denormalized counter; missing posts are absent
+    @Query("""
+            SELECT p.id AS postId,
+                   p.likeCount + COALESCE((SELECT SUM(c.cnt) FROM PostLikeCounter c WHERE c.postId = p.id), 0)
+                   AS likeCount
+            FROM Post p WHERE p.id IN :postIds
+            """)
+    List<PostLikeCountView> findLikeCountsByIdIn(@Param("postIds") Collection<Long> postIds);
+
+    // Set-based counter update: the row lock is held only for this statement's
+    // transaction and concurrent likes never overwrite each other
+    @Modifying
+    @Query(value = "UPDATE posts SET like_count = like_count + :delta WHERE id = :postId", nativeQuery = true)
+    int adjustLikeCount(@Param("postId") Long postId, @Param("delta") long delta);
+
+    // Used before a user is deleted: each of their likes is removed by cascade
+    @Modifying
+    @Query(value = """
+            UPDATE posts SET like_count = like_count - 1
+            WHERE id IN (SELECT pl.post_id FROM post_likes pl WHERE pl.user_id = :userId)
+            """, nativeQuery = true)
+    int decrementLikeCountsLikedBy(@Param("userId") Long userId);
+
+    // Recomputes like_count for one id range of posts; see LikeCountBackfillService.
+    // Counts still held in counter slots are left there.
+    @Modifying
+    @Query(value = """
+            UPDATE posts p
+            SET like_count = (SELECT COUNT(*) FROM post_likes pl WHERE pl.post_id = p.id)
+                    - (SELECT COALESCE(SUM(c.cnt), 0) FROM post_like_counters c WHERE c.post_id = p.id)
+            WHERE p.id > :fromId AND p.id <= :toId
+            """, nativeQuery = true)
+    int recomputeLikeCounts(@Param("fromId") Long fromId, @Param("toId") Long toId);
+
+    // Primary key lookups of the denormalized counter; missing posts are absent
+    @Query("SELECT p.id AS postId, p.commentCount AS commentCount FROM Post p WHERE p.id IN :postIds")
+    List<PostCommentCountView> findCommentCountsByIdIn(@Param("postIds") Collection<Long> postIds);
+
+    @Modifying
+    @Query(value = "UPDATE posts SET comment_count = comment_count + :delta WHERE id = :postId", nativeQuery = true)
+    int adjustCommentCount(@Param("postId") Long postId, @Param("delta") long delta);
+
+    @Query("SELECT p.id FROM Post p WHERE p.id IN :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT MAX(p.id) FROM Post p")
+    Optional<Long> findMaxId();
 }
@@ -0,0 +1,30 @@
+package com.test.practice.repository;
+
+import java.util.Map;
+
+public interface PostRepositoryCustom {
+
+    /**
+     * Applies like_count deltas for many posts as one JDBC batch of set-based
+     * updates. Posts are updated in id order so concurrent batches lock rows in
+     * the same order.
+     */
+    void adjustLikeCounts(Map<Long, Long> deltasByPostId);
+
+    /**
+     * comment_count counterpart of {@link #adjustLikeCounts}.
+     */
+    void adjustCommentCounts(Map<Long, Long> deltasByPostId);
+
+    /**
+     * Stored content of the posts with fromId < id <= toId, locked for update.
+     * Rows whose content_bin is not backfilled yet map to the UTF-8 bytes of
+     * their legacy text column.
+     */
+    Map<Long, byte[]> lockContentInRange(long fromId, long toId);
+
+    /**
+     * Overwrites content_bin as one JDBC batch; the caller holds the row locks.
+     */
+    void updateContent(Map<Long, byte[]> contentByPostId);
+}
@@ -0,0 +1,70 @@
+package com.test.practice.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+public class PostRepositoryImpl implements PostRepositoryCustom {
+
+    private static final String ADJUST_LIKE_COUNT = "UPDATE posts SET like_count = like_count + ? WHERE id = ?";
+    private static final String ADJUST_COMMENT_COUNT =
+            "UPDATE posts SET comment_count = comment_count + ? WHERE id = ?";
+    private static final String LOCK_CONTENT_IN_RANGE =
+            "SELECT id, content_bin, content FROM posts WHERE id > ? AND id <= ? ORDER BY id FOR UPDATE";
+    private static final String UPDATE_CONTENT = "UPDATE posts SET content_bin = ? WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public PostRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void adjustLikeCounts(Map<Long, Long> deltasByPostId) {
+        adjustCounts(ADJUST_LIKE_COUNT, deltasByPostId);
+    }
+
+    @Override
+    public void adjustCommentCounts(Map<Long, Long> deltasByPostId) {
+        adjustCounts(ADJUST_COMMENT_COUNT, deltasByPostId);
+    }
+
+    @Override
+    public Map<Long, byte[]> lockContentInRange(long fromId, long toId) {
+        Map<Long, byte[]> content = new TreeMap<>();
+        jdbcTemplate.query(LOCK_CONTENT_IN_RANGE,
+                rs -> {
+                    byte[] stored = rs.getBytes("content_bin");
+                    if (stored == null) {
+                        // Not backfilled yet: the legacy text, which ContentCodec reads as LEGACY
+                        String legacy = rs.getString("content");
+                        stored = legacy != null ? legacy.getBytes(StandardCharsets.UTF_8) : null;
+                    }
+                    content.put(rs.getLong("id"), stored);
+                }, fromId, toId);
+        return content;
+    }
+
+    @Override
+    public void updateContent(Map<Long, byte[]> contentByPostId) {
+        List<Object[]> args = new TreeMap<>(contentByPostId).entrySet().stream()
+                .map(entry -> new Object[] { entry.getValue(), entry.getKey() })
+                .toList();
+        if (!args.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPDATE_CONTENT, args);
+        }
+    }
+
+    private void adjustCounts(String sql, Map<Long, Long> deltasByPostId) {
+        List<Object[]> args = new TreeMap<>(deltasByPostId).entrySet().stream()
+                .filter(entry -> entry.getValue() != 0)
+                .map(entry -> new Object[] { entry.getValue(), entry.getKey() })
+                .toList();
+        if (!args.isEmpty()) {
+            jdbcTemplate.batchUpdate(sql, args);
+        }
+    }
+}
@@ -54,9 +54,11 @@ public class CategoryService {
         return PostDTO.builder()
                 .id(post.getId())
                 .title(post.getTitle())
-                .content(post.getContent())
+                .excerpt(post.getExcerpt())
                 .categoryId(post.getCategory() != null ? post.getCategory().getId() : null)
                 .categoryName(post.getCategory() != null ? post.getCategory().getName() : null)
+                .likeCount(post.getLikeCount())
+                .commentCount(post.getCommentCount())
                 .build();
     }
 
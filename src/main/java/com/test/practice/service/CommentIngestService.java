@@ -0,0 +1,285 @@
+package com.test.practice.service;
+
+import com.test.practice.cache.FirstCommentPageCache;
+import com.test.practice.cache.LastCommentIdCache;
+import com.test.practice.dto.CommentDTO;
+import com.test.practice.dto.CommentReceiptDTO;
+import com.test.practice.entity.Comment;
+import com.test.practice.exception.BadRequestException;
+import com.test.practice.exception.ResourceNotFoundException;
+import com.test.practice.ingest.CommentJournal;
+import com.test.practice.ingest.JournaledComment;
+import com.test.practice.repository.CommentRepository;
+import com.test.practice.repository.PostRepository;
+import com.test.practice.repository.UserRepository;
+import com.test.practice.stream.CommentStreamHub;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Optional asynchronous comment ingestion (app.comments.async-ingest.enabled).
+ *
+ * A top-level comment is checked against everything the insert enforces
+ * (text length, existing user and post), appended to a local
+ * {@link CommentJournal} and acknowledged with a receipt once the journal has
+ * forced it to disk. A background drain writes journaled comments to
+ * {@code comments} in JDBC batches, one transaction per batch, and then moves
+ * the journal checkpoint past them.
+ *
+ * Replay is exactly-once: every comment carries the ingest id from its
+ * receipt in a unique column, and a batch skips ids that are already stored.
+ * A crash between the commit and the checkpoint therefore only replays
+ * comments that are then skipped. Comments whose user or post was deleted
+ * after they were accepted are dropped and counted. Once a batch has committed, its comments
+ * on posts with open streams are published to the {@link CommentStreamHub}.
+ */
+@Component
+public class CommentIngestService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CommentIngestService.class);
+
+    private record Outcome(Set<Long> touchedPosts, List<JournaledComment> inserted, int rejected) {
+    }
+
+    private final CommentRepository commentRepository;
+    private final UserRepository userRepository;
+    private final PostRepository postRepository;
+    private final LastCommentIdCache lastCommentIdCache;
+    private final FirstCommentPageCache firstCommentPageCache;
+    private final CommentStreamHub commentStreamHub;
+    private final UniqueCommenterService uniqueCommenterService;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final CommentJournal journal;
+
+    private final Counter accepted;
+    private final Counter written;
+    private final Counter rejected;
+
+    public CommentIngestService(CommentRepository commentRepository, UserRepository userRepository,
+            PostRepository postRepository, LastCommentIdCache lastCommentIdCache,
+            FirstCommentPageCache firstCommentPageCache, CommentStreamHub commentStreamHub,
+            UniqueCommenterService uniqueCommenterService,
+            TransactionTemplate transactionTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${app.comments.async-ingest.enabled:false}") boolean enabled,
+            @Value("${app.comments.async-ingest.journal-dir:./data/comment-journal}") Path journalDir,
+            @Value("${app.comments.async-ingest.segment-bytes:16777216}") int segmentBytes,
+            @Value("${app.comments.async-ingest.batch-size:500}") int batchSize) {
+        this.commentRepository = commentRepository;
+        this.userRepository = userRepository;
+        this.postRepository = postRepository;
+        this.lastCommentIdCache = lastCommentIdCache;
+        this.firstCommentPageCache = firstCommentPageCache;
+        this.commentStreamHub = commentStreamHub;
+        this.uniqueCommenterService = uniqueCommenterService;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+        try {
+            this.journal = enabled ? new CommentJournal(journalDir, segmentBytes) : null;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open comment journal in " + journalDir, e);
+        }
+
+        Gauge.builder("comments.ingest.lag.records", this, s -> s.journal != null ? s.journal.pendingRecords() : 0)
+                .description("Journaled comments not yet written to the database")
+                .register(meterRegistry);
+        Gauge.builder("comments.ingest.lag.bytes", this, s -> s.journal != null ? s.journal.pendingBytes() : 0)
+                .description("Journal bytes after the checkpoint")
+                .register(meterRegistry);
+        this.accepted = Counter.builder("comments.ingest.accepted").register(meterRegistry);
+        this.written = Counter.builder("comments.ingest.written").register(meterRegistry);
+        this.rejected = Counter.builder("comments.ingest.rejected")
+                .description("Journaled comments dropped because their user or post is gone")
+                .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return journal != null;
+    }
+
+    /**
+     * Journals a top-level comment; returns once it is durable.
+     */
+    public CommentReceiptDTO submit(CommentDTO commentDTO) {
+        if (journal == null) {
+            throw new IllegalStateException("Asynchronous comment ingestion is disabled");
+        }
+        if (commentDTO.getUserId() == null || commentDTO.getPostId() == null) {
+            throw new BadRequestException("userId and postId are required");
+        }
+        if (commentDTO.getText() == null || commentDTO.getText().isBlank()) {
+            throw new BadRequestException("Comment text is mandatory");
+        }
+        if (commentDTO.getText().length() > Comment.MAX_TEXT_LENGTH) {
+            throw new BadRequestException("Comment text must be at most " + Comment.MAX_TEXT_LENGTH + " characters");
+        }
+        // Checked now so the drain only drops comments whose user or post is deleted later
+        if (!userRepository.existsById(commentDTO.getUserId())) {
+            throw new ResourceNotFoundException("User not found");
+        }
+        if (!postRepository.existsById(commentDTO.getPostId())) {
+            throw new ResourceNotFoundException("Post not found");
+        }
+
+        JournaledComment comment = new JournaledComment(UUID.randomUUID(), commentDTO.getUserId(),
+                commentDTO.getPostId(), commentDTO.getText(), LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS));
+        journal.append(comment.encode());
+        accepted.increment();
+        return CommentReceiptDTO.builder()
+                .ingestId(comment.ingestId().toString())
+                .userId(comment.userId())
+                .postId(comment.postId())
+                .createdAt(comment.createdAt())
+                .build();
+    }
+
+    /**
+     * Writes journaled comments to the database until the journal is caught
+     * up. A failed batch stays in the journal and is retried on the next run.
+     */
+    @Scheduled(fixedDelayString = "${app.comments.async-ingest.drain-interval-ms:200}")
+    public synchronized void drain() {
+        if (journal == null) {
+            return;
+        }
+        while (true) {
+            List<CommentJournal.Entry> entries = journal.read(journal.checkpoint(), batchSize);
+            if (entries.isEmpty()) {
+                return;
+            }
+            List<JournaledComment> batch = entries.stream()
+                    .map(entry -> JournaledComment.decode(entry.payload()))
+                    .toList();
+            try {
+                write(batch);
+            } catch (RuntimeException e) {
+                logger.warn("Writing {} journaled comments failed", batch.size(), e);
+                return;
+            }
+            journal.checkpoint(entries.get(entries.size() - 1).nextPosition(), entries.size());
+            if (entries.size() < batchSize) {
+                return;
+            }
+        }
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        if (journal != null) {
+            drain();
+            journal.close();
+        }
+    }
+
+    private void write(List<JournaledComment> batch) {
+        List<Outcome> outcomes = new ArrayList<>();
+        try {
+            outcomes.add(transactionTemplate.execute(status -> insertNew(batch)));
+        } catch (DataIntegrityViolationException e) {
+            // A user or post deleted since the check; find the offending rows one by one
+            for (JournaledComment comment : batch) {
+                try {
+                    outcomes.add(transactionTemplate.execute(status -> insertNew(List.of(comment))));
+                } catch (DataIntegrityViolationException single) {
+                    logger.info("Dropping journaled comment {}: {}", comment.ingestId(), single.getMessage());
+                    rejected.increment();
+                }
+            }
+        }
+        Set<Long> touchedPosts = new HashSet<>();
+        List<String> streamed = new ArrayList<>();
+        for (Outcome outcome : outcomes) {
+            touchedPosts.addAll(outcome.touchedPosts());
+            written.increment(outcome.inserted().size());
+            rejected.increment(outcome.rejected());
+            outcome.inserted().stream()
+                    .filter(comment -> commentStreamHub.hasSubscribers(comment.postId()))
+                    .forEach(comment -> streamed.add(comment.ingestId().toString()));
+        }
+        touchedPosts.forEach(postId -> {
+            lastCommentIdCache.invalidate(postId);
+            firstCommentPageCache.invalidate(postId);
+        });
+        publish(streamed);
+    }
+
+    // Ids are assigned by the database, so committed comments are read back to stream them
+    private void publish(List<String> ingestIds) {
+        if (ingestIds.isEmpty()) {
+            return;
+        }
+        try {
+            commentRepository.findWithUserByIngestIds(ingestIds).forEach(comment -> commentStreamHub.publish(
+                    CommentDTO.builder()
+                            .id(comment.getId())
+                            .text(comment.getText())
+                            .userId(comment.getUser().getId())
+                            .userName(comment.getUser().getName())
+                            .postId(comment.getPost().getId())
+                            .createdAt(comment.getCreatedAt())
+                            .build()));
+        } catch (RuntimeException e) {
+            // The batch is committed; streams miss it and clients catch up with a delta poll
+            logger.warn("Publishing {} ingested comments failed", ingestIds.size(), e);
+        }
+    }
+
+    private Outcome insertNew(List<JournaledComment> batch) {
+        Map<String, JournaledComment> byIngestId = new LinkedHashMap<>();
+        batch.forEach(comment -> byIngestId.putIfAbsent(comment.ingestId().toString(), comment));
+        commentRepository.findExistingIngestIds(byIngestId.keySet()).forEach(byIngestId::remove);
+
+        if (byIngestId.isEmpty()) {
+            return new Outcome(Set.of(), List.of(), 0);
+        }
+        Set<Long> userIds = new HashSet<>();
+        Set<Long> postIds = new HashSet<>();
+        byIngestId.values().forEach(comment -> {
+            userIds.add(comment.userId());
+            postIds.add(comment.postId());
+        });
+        Set<Long> existingUsers = new HashSet<>(userRepository.findExistingIds(userIds));
+        Set<Long> existingPosts = new HashSet<>(postRepository.findExistingIds(postIds));
+
+        List<JournaledComment> insertable = new ArrayList<>();
+        Map<Long, Long> countDeltas = new HashMap<>();
+        Map<Long, Set<Long>> commenters = new HashMap<>();
+        for (JournaledComment comment : byIngestId.values()) {
+            if (existingUsers.contains(comment.userId()) && existingPosts.contains(comment.postId())) {
+                insertable.add(comment);
+                countDeltas.merge(comment.postId(), 1L, Long::sum);
+                commenters.computeIfAbsent(comment.postId(), id -> new HashSet<>()).add(comment.userId());
+            } else {
+                logger.info("Dropping journaled comment {}: user or post not found", comment.ingestId());
+            }
+        }
+        commentRepository.insertIngested(insertable);
+        postRepository.adjustCommentCounts(countDeltas);
+        commenters.forEach(uniqueCommenterService::recordCommenters);
+        return new Outcome(countDeltas.keySet(), insertable, byIngestId.size() - insertable.size());
+    }
+}
@@ -1,18 +1,36 @@
 package com.test.practice.service;
 
+import com.test.practice.cache.FirstCommentPageCache;
+import com.test.practice.cache.LastCommentIdCache;
 import com.test.practice.dto.CommentDTO;
+import com.test.practice.dto.CursorPageDTO;
 import com.test.practice.entity.Comment;
+import com.test.practice.projection.CommentPositionView;
+import com.test.practice.projection.CommentPreviewView;
 import com.test.practice.projection.CommentView;
+import com.test.practice.projection.PostCommentCountView;
+import com.test.practice.projection.UserCommentView;
 import com.test.practice.entity.Post;
 import com.test.practice.entity.User;
+import com.test.practice.exception.BadRequestException;
 import com.test.practice.exception.ResourceNotFoundException;
+import com.test.practice.pagination.TimeIdCursor;
 import com.test.practice.repository.CommentRepository;
 import com.test.practice.repository.PostRepository;
 import com.test.practice.repository.UserRepository;
+import com.test.practice.stream.CommentStreamHub;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
@@ -22,12 +40,22 @@ public class CommentService {
     private final CommentRepository commentRepository;
     private final UserRepository userRepository;
     private final PostRepository postRepository;
+    private final LastCommentIdCache lastCommentIdCache;
+    private final FirstCommentPageCache firstCommentPageCache;
+    private final CommentStreamHub commentStreamHub;
+    private final UniqueCommenterService uniqueCommenterService;
 
     public CommentService(CommentRepository commentRepository, UserRepository userRepository,
-            PostRepository postRepository) {
+            PostRepository postRepository, LastCommentIdCache lastCommentIdCache,
+            FirstCommentPageCache firstCommentPageCache, CommentStreamHub commentStreamHub,
+            UniqueCommenterService uniqueCommenterService) {
         this.commentRepository = commentRepository;
         this.userRepository = userRepository;
         this.postRepository = postRepository;
+        this.lastCommentIdCache = lastCommentIdCache;
+        this.firstCommentPageCache = firstCommentPageCache;
+        this.commentStreamHub = commentStreamHub;
+        this.uniqueCommenterService = uniqueCommenterService;
     }
 
     public CommentDTO addComment(CommentDTO commentDTO) {
@@ -36,21 +64,224 @@ public class CommentService {
         Post post = postRepository.findById(commentDTO.getPostId())
                 .orElseThrow(() -> new ResourceNotFoundException("Post not found"));
 
+        Comment parent = null;
+        if (commentDTO.getParentId() != null) {
+            parent = commentRepository.findById(commentDTO.getParentId())
+                    .orElseThrow(() -> new ResourceNotFoundException("Parent comment not found"));
+            if (!parent.getPost().getId().equals(post.getId())) {
+                throw new BadRequestException("Parent comment belongs to another post");
+            }
+            if (parent.getDepth() >= Comment.MAX_DEPTH) {
+                throw new BadRequestException("Replies cannot be nested deeper than " + Comment.MAX_DEPTH + " levels");
+            }
+        }
+
         Comment comment = Comment.builder()
                 .text(commentDTO.getText())
                 .user(user)
                 .post(post)
+                .parent(parent)
+                .depth(parent != null ? parent.getDepth() + 1 : 0)
                 .build();
         Comment savedComment = commentRepository.save(comment);
+        // The path ends in the comment's own id, so it is filled in once the
+        // insert has assigned one and written with the commit
+        savedComment.setRootId(parent != null ? parent.getRootId() : savedComment.getId());
+        savedComment.setPath((parent != null ? parent.getPath() : "") + pathSegment(savedComment.getId()));
+        postRepository.adjustCommentCount(post.getId(), 1);
+        uniqueCommenterService.recordCommenters(post.getId(), List.of(user.getId()));
+
+        CommentDTO created = mapToDTO(savedComment);
+        TransactionCallbacks.afterCommit(() -> {
+            lastCommentIdCache.added(post.getId(), savedComment.getId());
+            firstCommentPageCache.added(created);
+            commentStreamHub.publish(created);
+        });
+        return created;
+    }
+
+    /**
+     * Deletes the comment together with all replies below it.
+     */
+    public void deleteComment(Long id) {
+        Comment comment = commentRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Comment not found with id: " + id));
+        Long postId = comment.getPost().getId();
+        int deleted = comment.getPath() != null
+                ? commentRepository.deleteSubtree(comment.getRootId(), comment.getPath() + "%")
+                : commentRepository.deleteByIdNative(id);
+        if (deleted > 0) {
+            postRepository.adjustCommentCount(postId, -deleted);
+            TransactionCallbacks.afterCommit(() -> {
+                lastCommentIdCache.invalidate(postId);
+                firstCommentPageCache.invalidate(postId);
+            });
+        }
+    }
+
+    /**
+     * Called before a user is deleted. Their comments are deleted here with
+     * the subtrees under them, replies by other users included, so no reply
+     * is left pointing at a missing parent; each post's comment_count drops
+     * by the rows removed.
+     */
+    public void releaseCommentsOfUser(Long userId) {
+        Map<Long, Long> removed = new HashMap<>();
+        for (CommentPositionView comment : commentRepository.findPositionsByUserId(userId)) {
+            // Parents come first, so replies already removed with them delete nothing
+            int deleted = comment.getPath() != null
+                    ? commentRepository.deleteSubtree(comment.getRootId(), comment.getPath() + "%")
+                    : commentRepository.deleteByIdNative(comment.getId());
+            if (deleted > 0) {
+                removed.merge(comment.getPostId(), (long) -deleted, Long::sum);
+            }
+        }
+        if (removed.isEmpty()) {
+            return;
+        }
+        postRepository.adjustCommentCounts(removed);
+        TransactionCallbacks.afterCommit(() -> removed.keySet().forEach(postId -> {
+            lastCommentIdCache.invalidate(postId);
+            firstCommentPageCache.invalidate(postId);
+        }));
+    }
+
+    /**
+     * Comment counts for a page of posts from the denormalized column, one
+     * primary key lookup per post in a single query; posts that do not exist
+     * count as zero.
+     */
+    @Transactional(readOnly = true)
+    public Map<Long, Long> countComments(Collection<Long> postIds) {
+        Map<Long, Long> counts = new LinkedHashMap<>();
+        postIds.forEach(postId -> counts.put(postId, 0L));
+        if (!counts.isEmpty()) {
+            for (PostCommentCountView row : postRepository.findCommentCountsByIdIn(counts.keySet())) {
+                counts.put(row.getPostId(), row.getCommentCount());
+            }
+        }
+        return counts;
+    }
+
+    /**
+     * Latest n comments of each post, newest first, in one query. Every
+     * requested post is present in the result, in request order.
+     */
+    @Transactional(readOnly = true)
+    public Map<Long, List<CommentDTO>> getPreviews(Collection<Long> postIds, int n) {
+        Map<Long, List<CommentDTO>> previews = new LinkedHashMap<>();
+        postIds.forEach(postId -> previews.put(postId, new ArrayList<>()));
+        if (previews.isEmpty()) {
+            return previews;
+        }
+        for (CommentPreviewView row : commentRepository.findLatestByPostIds(previews.keySet(), n)) {
+            previews.get(row.getPostId()).add(CommentDTO.builder()
+                    .id(row.getId())
+                    .text(row.getText())
+                    .userId(row.getUserId())
+                    .userName(row.getUserName())
+                    .postId(row.getPostId())
+                    .parentId(row.getParentId())
+                    .createdAt(row.getCreatedAt())
+                    .build());
+        }
+        return previews;
+    }
 
-        return mapToDTO(savedComment);
+    /**
+     * One page of a post's comments, newest first. The cursor is the
+     * (createdAt, id) of the last comment of the previous page, so every page
+     * is an index range scan of limit + 1 rows whatever the thread size.
+     * First pages are served from {@link FirstCommentPageCache}.
+     */
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public CursorPageDTO<CommentDTO> getCommentsByPostId(Long postId, String after, int limit) {
+        List<CommentDTO> comments;
+        if (after == null && limit < firstCommentPageCache.rows()) {
+            comments = firstCommentPageCache.get(postId, id -> findNewest(id, firstCommentPageCache.rows()));
+        } else if (after == null) {
+            comments = findNewest(postId, limit + 1);
+        } else {
+            TimeIdCursor position = TimeIdCursor.decode(after);
+            comments = commentRepository.findCommentsWithUserByPostIdAfter(postId, position.createdAt(), position.id(),
+                    Limit.of(limit + 1)).stream().map(this::mapToDTO).collect(Collectors.toList());
+        }
+
+        boolean hasMore = comments.size() > limit;
+        List<CommentDTO> items = hasMore ? List.copyOf(comments.subList(0, limit)) : comments;
+        String nextCursor = hasMore ? cursorOf(items.get(limit - 1)) : null;
+        return new CursorPageDTO<>(items, nextCursor, hasMore);
     }
 
+    /**
+     * One page of a user's comments, newest first, keyset paged like
+     * {@link #getCommentsByPostId}. Rows are read straight into projections
+     * and no total is counted.
+     */
     @Transactional(readOnly = true)
-    public List<CommentDTO> getCommentsByPostId(Long postId) {
-        // Using the HQL method we created
-        List<CommentView> comments = commentRepository.findCommentsWithUserByPostId(postId);
-        return comments.stream().map(this::mapToDTO).collect(Collectors.toList());
+    public CursorPageDTO<UserCommentView> getCommentsByUserId(Long userId, String after, int limit) {
+        List<UserCommentView> rows;
+        if (after == null) {
+            rows = commentRepository.findByUserIdNewestFirst(userId, Limit.of(limit + 1));
+        } else {
+            TimeIdCursor position = TimeIdCursor.decode(after);
+            rows = commentRepository.findByUserIdNewestFirstAfter(userId, position.createdAt(), position.id(),
+                    Limit.of(limit + 1));
+        }
+        if (rows.isEmpty() && after == null && !userRepository.existsById(userId)) {
+            throw new ResourceNotFoundException("User not found with id: " + userId);
+        }
+
+        boolean hasMore = rows.size() > limit;
+        List<UserCommentView> items = List.copyOf(hasMore ? rows.subList(0, limit) : rows);
+        String nextCursor = hasMore
+                ? cursorOf(items.get(limit - 1).getCreatedAt(), items.get(limit - 1).getId())
+                : null;
+        return new CursorPageDTO<>(items, nextCursor, hasMore);
+    }
+
+    private List<CommentDTO> findNewest(Long postId, int count) {
+        return commentRepository.findCommentsWithUserByPostId(postId, Limit.of(count)).stream()
+                .map(this::mapToDTO)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Comments newer than sinceId, oldest first, for clients that poll a
+     * thread. An empty page means nothing changed; when the cached newest id
+     * shows that, no query is run. hasMore asks the client to poll again
+     * right away with the id of the last comment returned.
+     *
+     * Ids are assigned at insert but become visible at commit, so a comment
+     * committing just after a newer one can be skipped by a poll that already
+     * moved past it; the window is the duration of a single insert.
+     */
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public CursorPageDTO<CommentDTO> getCommentsSince(Long postId, long sinceId, int limit) {
+        if (lastCommentIdCache.get(postId) <= sinceId) {
+            return new CursorPageDTO<>(List.of(), null, false);
+        }
+        List<CommentView> comments = commentRepository.findCommentsWithUserByPostIdSince(postId, sinceId,
+                Limit.of(limit + 1));
+
+        boolean hasMore = comments.size() > limit;
+        List<CommentDTO> items = (hasMore ? comments.subList(0, limit) : comments).stream()
+                .map(this::mapToDTO)
+                .collect(Collectors.toList());
+        return new CursorPageDTO<>(items, null, hasMore);
+    }
+
+    static String pathSegment(Long id) {
+        return String.format("%012d/", id);
+    }
+
+    private static String cursorOf(CommentDTO comment) {
+        return cursorOf(comment.getCreatedAt(), comment.getId());
+    }
+
+    // Keyset position (createdAt, id) of a comment in newest-first order
+    static String cursorOf(LocalDateTime createdAt, Long id) {
+        return TimeIdCursor.encode(createdAt, id);
     }
 
     private CommentDTO mapToDTO(CommentView comment) {
@@ -60,6 +291,7 @@ public class CommentService {
                 .userId(comment.getUser().getId())
                 .userName(comment.getUser().getName())
                 .postId(comment.getPost().getId())
+                .parentId(comment.getParent() != null ? comment.getParent().getId() : null)
                 .createdAt(comment.getCreatedAt())
                 .build();
     }
@@ -71,6 +303,7 @@ public class CommentService {
                 .userId(comment.getUser().getId())
                 .userName(comment.getUser().getName())
                 .postId(comment.getPost().getId())
+                .parentId(comment.getParent() != null ? comment.getParent().getId() : null)
                 .createdAt(comment.getCreatedAt())
                 .build();
     }
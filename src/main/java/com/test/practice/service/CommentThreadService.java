@@ -0,0 +1,140 @@
+package com.test.practice.service;
+
+import com.test.practice.dto.CommentNodeDTO;
+import com.test.practice.dto.CursorPageDTO;
+import com.test.practice.entity.Comment;
+import com.test.practice.exception.ResourceNotFoundException;
+import com.test.practice.pagination.TimeIdCursor;
+import com.test.practice.projection.CommentNodeView;
+import com.test.practice.projection.CommentView;
+import com.test.practice.repository.CommentRepository;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Reads threaded comments. Every comment carries a materialized path (see
+ * {@link Comment#getPath()}), so a whole thread, or any subtree, is one range
+ * query in path order and is assembled in memory in a single pass: in path
+ * order a parent always comes before its replies.
+ */
+@Service
+@Transactional(readOnly = true)
+public class CommentThreadService {
+
+    private final CommentRepository commentRepository;
+
+    public CommentThreadService(CommentRepository commentRepository) {
+        this.commentRepository = commentRepository;
+    }
+
+    /**
+     * One page of top-level comments, newest first, each with its replies
+     * down to maxDepth and cut to the first maxReplies replies in thread
+     * order; cut threads are flagged truncated. Two queries per page, the
+     * second reading at most maxReplies + 2 rows per thread.
+     */
+    public CursorPageDTO<CommentNodeDTO> getThreads(Long postId, String after, int limit, int maxDepth,
+            int maxReplies) {
+        List<CommentView> roots;
+        if (after == null) {
+            roots = commentRepository.findRootsByPostId(postId, Limit.of(limit + 1));
+        } else {
+            TimeIdCursor position = TimeIdCursor.decode(after);
+            roots = commentRepository.findRootsByPostIdAfter(postId, position.createdAt(), position.id(), Limit.of(limit + 1));
+        }
+
+        boolean hasMore = roots.size() > limit;
+        List<CommentView> page = hasMore ? roots.subList(0, limit) : roots;
+        if (page.isEmpty()) {
+            return new CursorPageDTO<>(List.of(), null, false);
+        }
+
+        List<Long> rootIds = page.stream().map(CommentView::getId).toList();
+        // One row past the cap per thread tells whether it was cut
+        List<CommentNodeView> rows = commentRepository.findThreads(rootIds, maxDepth, maxReplies + 2);
+        List<CommentNodeView> kept = new ArrayList<>(rows.size());
+        Set<Long> truncated = new HashSet<>();
+        Long threadId = null;
+        int threadRows = 0;
+        for (CommentNodeView row : rows) {
+            if (row.getDepth() == 0) {
+                threadId = row.getId();
+                threadRows = 0;
+            }
+            if (++threadRows > maxReplies + 1) {
+                truncated.add(threadId);
+            } else {
+                kept.add(row);
+            }
+        }
+
+        Map<Long, CommentNodeDTO> threads = new HashMap<>();
+        for (CommentNodeDTO node : assemble(kept)) {
+            node.setTruncated(truncated.contains(node.getId()));
+            threads.put(node.getId(), node);
+        }
+        List<CommentNodeDTO> items = rootIds.stream()
+                .map(threads::get)
+                .filter(node -> node != null)
+                .toList();
+
+        CommentView last = page.get(page.size() - 1);
+        String nextCursor = hasMore ? CommentService.cursorOf(last.getCreatedAt(), last.getId()) : null;
+        return new CursorPageDTO<>(items, nextCursor, hasMore);
+    }
+
+    /**
+     * A comment with its replies down to maxDepth levels below it, cut to the
+     * first maxReplies replies in thread order and flagged truncated if cut.
+     */
+    public CommentNodeDTO getSubtree(Long commentId, int maxDepth, int maxReplies) {
+        Comment comment = commentRepository.findById(commentId)
+                .orElseThrow(() -> new ResourceNotFoundException("Comment not found with id: " + commentId));
+        if (comment.getPath() == null) {
+            throw new ResourceNotFoundException("Comment not found with id: " + commentId);
+        }
+        List<CommentNodeView> rows = commentRepository.findSubtree(comment.getRootId(), comment.getPath() + "%",
+                comment.getDepth() + maxDepth, maxReplies + 2);
+        boolean truncated = rows.size() > maxReplies + 1;
+        CommentNodeDTO subtree = assemble(truncated ? rows.subList(0, maxReplies + 1) : rows).get(0);
+        subtree.setTruncated(truncated);
+        return subtree;
+    }
+
+    // Rows must be in path order. Returns the nodes whose parent is not among
+    // the rows: the requested roots, plus any reply whose parent was removed
+    // without its subtree, which callers leave out.
+    private static List<CommentNodeDTO> assemble(List<CommentNodeView> rows) {
+        Map<Long, CommentNodeDTO> nodes = new HashMap<>(rows.size() * 2);
+        List<CommentNodeDTO> tops = new ArrayList<>();
+        for (CommentNodeView row : rows) {
+            CommentNodeDTO node = CommentNodeDTO.builder()
+                    .id(row.getId())
+                    .text(row.getText())
+                    .userId(row.getUserId())
+                    .userName(row.getUserName())
+                    .postId(row.getPostId())
+                    .parentId(row.getParentId())
+                    .depth(row.getDepth())
+                    .createdAt(row.getCreatedAt())
+                    .build();
+            nodes.put(node.getId(), node);
+
+            CommentNodeDTO parent = row.getParentId() != null ? nodes.get(row.getParentId()) : null;
+            if (parent != null) {
+                parent.getReplies().add(node);
+            } else {
+                tops.add(node);
+            }
+        }
+        return tops;
+    }
+}
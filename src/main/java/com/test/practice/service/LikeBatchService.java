@@ -0,0 +1,225 @@
+package com.test.practice.service;
+
+import com.test.practice.cache.LikeCounterStore;
+import com.test.practice.cache.LikedPostsCache;
+import com.test.practice.dto.LikeAction;
+import com.test.practice.dto.LikeBatchItemDTO;
+import com.test.practice.dto.LikeBatchResultDTO;
+import com.test.practice.projection.LikeKeyView;
+import com.test.practice.repository.LikeKey;
+import com.test.practice.repository.PostLikeRepository;
+import com.test.practice.repository.PostRepository;
+import com.test.practice.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static com.test.practice.dto.LikeBatchResultDTO.APPLIED;
+import static com.test.practice.dto.LikeBatchResultDTO.INVALID;
+import static com.test.practice.dto.LikeBatchResultDTO.NOT_FOUND;
+import static com.test.practice.dto.LikeBatchResultDTO.UNCHANGED;
+
+/**
+ * Applies large lists of like/unlike actions, e.g. replayed from an offline
+ * client queue.
+ *
+ * Items are processed in chunks, one transaction per chunk. Within a chunk
+ * the current state of every touched (user, post) pair is read once, the
+ * actions are replayed in memory in request order, and only the net changes
+ * are written as JDBC batches, followed by one batch of like_count updates.
+ */
+@Service
+public class LikeBatchService {
+
+    private static final Logger logger = LoggerFactory.getLogger(LikeBatchService.class);
+
+    private static final int MAX_ATTEMPTS = 3;
+
+    // Rows actually written by one committed chunk
+    private record ChunkOutcome(Map<Long, Long> deltas, List<LikeKey> liked, List<LikeKey> unliked) {
+    }
+
+    private final PostLikeRepository postLikeRepository;
+    private final PostRepository postRepository;
+    private final UserRepository userRepository;
+    private final LikeCounterStore likeCounterStore;
+    private final LikedPostsCache likedPostsCache;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+
+    public LikeBatchService(PostLikeRepository postLikeRepository, PostRepository postRepository,
+            UserRepository userRepository, LikeCounterStore likeCounterStore, LikedPostsCache likedPostsCache,
+            TransactionTemplate transactionTemplate, @Value("${app.likes.batch.chunk-size:500}") int chunkSize) {
+        this.postLikeRepository = postLikeRepository;
+        this.postRepository = postRepository;
+        this.userRepository = userRepository;
+        this.likeCounterStore = likeCounterStore;
+        this.likedPostsCache = likedPostsCache;
+        this.transactionTemplate = transactionTemplate;
+        this.chunkSize = chunkSize;
+    }
+
+    public LikeBatchResultDTO applyBatch(List<LikeBatchItemDTO> items) {
+        return applyBatch(items, true);
+    }
+
+    /**
+     * @param updateCounters false when the caller reconciles the like counter
+     *                       store itself once the whole batch is written
+     */
+    LikeBatchResultDTO applyBatch(List<LikeBatchItemDTO> items, boolean updateCounters) {
+        char[] statuses = new char[items.size()];
+        for (int from = 0; from < items.size(); from += chunkSize) {
+            int to = Math.min(from + chunkSize, items.size());
+            applyChunk(items.subList(from, to), statuses, from, updateCounters);
+        }
+        return LikeBatchResultDTO.of(statuses);
+    }
+
+    private void applyChunk(List<LikeBatchItemDTO> chunk, char[] statuses, int offset, boolean updateCounters) {
+        for (int attempt = 1; attempt <= MAX_ATTEMPTS; attempt++) {
+            try {
+                ChunkOutcome outcome = transactionTemplate.execute(status -> writeChunk(chunk, statuses, offset));
+                if (updateCounters) {
+                    outcome.deltas().forEach(likeCounterStore::add);
+                }
+                outcome.liked().forEach(key -> likedPostsCache.added(key.userId(), key.postId()));
+                outcome.unliked().forEach(key -> likedPostsCache.removed(key.userId(), key.postId()));
+                return;
+            } catch (DataIntegrityViolationException e) {
+                // A concurrent writer changed one of the pairs between our read
+                // and the batch; the chunk was rolled back, so simply retry it
+                logger.debug("Like batch chunk at offset {} conflicted (attempt {})", offset, attempt);
+            }
+        }
+        applyOneByOne(chunk, statuses, offset, updateCounters);
+    }
+
+    private ChunkOutcome writeChunk(List<LikeBatchItemDTO> chunk, char[] statuses, int offset) {
+        Set<Long> userIds = new HashSet<>();
+        Set<Long> postIds = new HashSet<>();
+        for (LikeBatchItemDTO item : chunk) {
+            if (isValid(item)) {
+                userIds.add(item.getUserId());
+                postIds.add(item.getPostId());
+            }
+        }
+        if (userIds.isEmpty()) {
+            for (int i = 0; i < chunk.size(); i++) {
+                statuses[offset + i] = INVALID;
+            }
+            return new ChunkOutcome(Map.of(), List.of(), List.of());
+        }
+
+        Set<Long> existingUsers = new HashSet<>(userRepository.findExistingIds(userIds));
+        Set<Long> existingPosts = new HashSet<>(postRepository.findExistingIds(postIds));
+        Set<LikeKey> liked = new HashSet<>();
+        for (LikeKeyView row : postLikeRepository.findLikesAmong(userIds, postIds)) {
+            liked.add(new LikeKey(row.getUserId(), row.getPostId()));
+        }
+
+        // Replay the actions in request order against the current state
+        Map<LikeKey, Boolean> state = new LinkedHashMap<>();
+        for (int i = 0; i < chunk.size(); i++) {
+            LikeBatchItemDTO item = chunk.get(i);
+            if (!isValid(item)) {
+                statuses[offset + i] = INVALID;
+                continue;
+            }
+            if (!existingUsers.contains(item.getUserId()) || !existingPosts.contains(item.getPostId())) {
+                statuses[offset + i] = NOT_FOUND;
+                continue;
+            }
+            LikeKey key = new LikeKey(item.getUserId(), item.getPostId());
+            boolean current = state.computeIfAbsent(key, liked::contains);
+            boolean target = item.getAction() == LikeAction.LIKE;
+            statuses[offset + i] = current == target ? UNCHANGED : APPLIED;
+            state.put(key, target);
+        }
+
+        // Only pairs whose final state differs from the stored one are written
+        List<LikeKey> inserts = new ArrayList<>();
+        List<LikeKey> deletes = new ArrayList<>();
+        state.forEach((key, target) -> {
+            boolean stored = liked.contains(key);
+            if (target && !stored) {
+                inserts.add(key);
+            } else if (!target && stored) {
+                deletes.add(key);
+            }
+        });
+
+        Map<Long, Long> deltas = new HashMap<>();
+        List<LikeKey> unliked = new ArrayList<>();
+        int[] inserted = postLikeRepository.insertLikes(inserts);
+        for (int i = 0; i < inserted.length; i++) {
+            deltas.merge(inserts.get(i).postId(), affected(inserted[i]), Long::sum);
+        }
+        int[] deleted = postLikeRepository.deleteLikes(deletes);
+        for (int i = 0; i < deleted.length; i++) {
+            long affected = affected(deleted[i]);
+            deltas.merge(deletes.get(i).postId(), -affected, Long::sum);
+            if (affected > 0) {
+                unliked.add(deletes.get(i));
+            }
+        }
+        postRepository.adjustLikeCounts(deltas);
+        // A failed insert aborts the whole batch, so every insert here succeeded
+        return new ChunkOutcome(deltas, inserts, unliked);
+    }
+
+    // Same statements as the single like/unlike path, one transaction per item
+    private void applyOneByOne(List<LikeBatchItemDTO> chunk, char[] statuses, int offset, boolean updateCounters) {
+        for (int i = 0; i < chunk.size(); i++) {
+            LikeBatchItemDTO item = chunk.get(i);
+            if (!isValid(item)) {
+                statuses[offset + i] = INVALID;
+                continue;
+            }
+            Long postId = item.getPostId();
+            try {
+                long delta = transactionTemplate.execute(status -> {
+                    long change = item.getAction() == LikeAction.LIKE
+                            ? (postLikeRepository.insertLikeIfAbsent(item.getUserId(), postId) ? 1 : 0)
+                            : -postLikeRepository.deleteLikeNative(item.getUserId(), postId);
+                    if (change != 0) {
+                        postRepository.adjustLikeCount(postId, change);
+                    }
+                    return change;
+                });
+                if (updateCounters && delta != 0) {
+                    likeCounterStore.add(postId, delta);
+                }
+                if (delta > 0) {
+                    likedPostsCache.added(item.getUserId(), postId);
+                } else if (delta < 0) {
+                    likedPostsCache.removed(item.getUserId(), postId);
+                }
+                statuses[offset + i] = delta != 0 ? APPLIED : UNCHANGED;
+            } catch (DataIntegrityViolationException e) {
+                statuses[offset + i] = NOT_FOUND;
+            }
+        }
+    }
+
+    private static boolean isValid(LikeBatchItemDTO item) {
+        return item != null && item.getUserId() != null && item.getPostId() != null && item.getAction() != null;
+    }
+
+    private static long affected(int updateCount) {
+        // Some drivers report SUCCESS_NO_INFO (-2) for batched statements
+        return updateCount == Statement.SUCCESS_NO_INFO ? 1 : updateCount;
+    }
+}
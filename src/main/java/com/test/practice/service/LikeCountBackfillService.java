@@ -0,0 +1,62 @@
+package com.test.practice.service;
+
+import com.test.practice.repository.PostRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Recomputes {@code posts.like_count} from {@code post_likes}.
+ *
+ * Works through the posts table in id ranges, one short transaction per
+ * range, so a table with millions of likes is never locked as a whole and
+ * the job can be stopped and rerun at any point.
+ */
+@Service
+public class LikeCountBackfillService {
+
+    private static final Logger logger = LoggerFactory.getLogger(LikeCountBackfillService.class);
+
+    private final PostRepository postRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final boolean runOnStartup;
+
+    public LikeCountBackfillService(PostRepository postRepository, TransactionTemplate transactionTemplate,
+            @Value("${app.likes.like-count-backfill.chunk-size:1000}") int chunkSize,
+            @Value("${app.likes.like-count-backfill.on-startup:false}") boolean runOnStartup) {
+        this.postRepository = postRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.chunkSize = chunkSize;
+        this.runOnStartup = runOnStartup;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillOnStartup() {
+        if (runOnStartup) {
+            backfill();
+        }
+    }
+
+    /**
+     * @return number of posts whose like_count was rewritten
+     */
+    public long backfill() {
+        long maxId = postRepository.findMaxId().orElse(0L);
+        long updated = 0;
+
+        for (long fromId = 0; fromId < maxId; fromId += chunkSize) {
+            long from = fromId;
+            long to = Math.min(fromId + chunkSize, maxId);
+            Integer rows = transactionTemplate.execute(status -> postRepository.recomputeLikeCounts(from, to));
+            updated += rows != null ? rows : 0;
+        }
+
+        logger.info("Backfilled like_count for {} posts up to id={}", updated, maxId);
+        return updated;
+    }
+}
@@ -0,0 +1,301 @@
+package com.test.practice.service;
+
+import com.test.practice.cache.LikeCounterStore;
+import com.test.practice.dto.LikeAction;
+import com.test.practice.dto.LikeBatchItemDTO;
+import com.test.practice.repository.LikeKey;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.BooleanSupplier;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Optional write-coalescing for like/unlike (app.likes.coalescing.enabled).
+ *
+ * Keeps the latest intent per (user, post) for a short window. A user toggling
+ * like/unlike on one post then costs one state lookup and at most one write
+ * per window, and toggles that cancel out cost no write at all. Flushes go
+ * through {@link LikeBatchService}.
+ *
+ * Reads stay consistent with the buffer: like counts add the pending net
+ * change per post, and {@link #pendingState} answers existence checks for
+ * buffered pairs. A flush swaps the pending change for fresh counters under a
+ * write lock, so a reader never sees a change twice or not at all.
+ *
+ * Flushes run on a thread of their own, every {@code flush-interval-ms} and
+ * as soon as more than {@code max-pending} pairs are buffered, so jobs on the
+ * shared scheduler cannot hold them up while the buffer grows.
+ */
+@Component
+public class LikeWriteBuffer {
+
+    private static final Logger logger = LoggerFactory.getLogger(LikeWriteBuffer.class);
+
+    private record Intent(boolean persisted, boolean desired, long firstSeenNanos, int updates) {
+
+        long delta() {
+            return (desired ? 1 : 0) - (persisted ? 1 : 0);
+        }
+    }
+
+    private final LikeBatchService likeBatchService;
+    private final LikeCounterStore likeCounterStore;
+    private final boolean enabled;
+    private final long windowNanos;
+    private final int maxPending;
+
+    private final Map<LikeKey, Intent> pending = new ConcurrentHashMap<>();
+    private final Map<Long, Long> pendingDeltas = new ConcurrentHashMap<>();
+    private final ReadWriteLock flushLock = new ReentrantReadWriteLock();
+    private final ScheduledExecutorService flusher;
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+
+    private final Counter intents;
+    private final Counter writes;
+    private final AtomicLong flushedIntents = new AtomicLong();
+    private final AtomicLong flushedWrites = new AtomicLong();
+    private final Timer flushTimer;
+
+    public LikeWriteBuffer(LikeBatchService likeBatchService, LikeCounterStore likeCounterStore,
+            MeterRegistry meterRegistry,
+            @Value("${app.likes.coalescing.enabled:false}") boolean enabled,
+            @Value("${app.likes.coalescing.window-ms:500}") long windowMs,
+            @Value("${app.likes.coalescing.max-pending:50000}") int maxPending,
+            @Value("${app.likes.coalescing.flush-interval-ms:100}") long flushIntervalMs) {
+        this.likeBatchService = likeBatchService;
+        this.likeCounterStore = likeCounterStore;
+        this.enabled = enabled;
+        this.windowNanos = Duration.ofMillis(windowMs).toNanos();
+        this.maxPending = maxPending;
+        if (enabled) {
+            this.flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "like-flush");
+                thread.setDaemon(true);
+                return thread;
+            });
+            flusher.scheduleWithFixedDelay(this::flushExpired, flushIntervalMs, flushIntervalMs,
+                    TimeUnit.MILLISECONDS);
+        } else {
+            this.flusher = null;
+        }
+
+        Gauge.builder("likes.coalescing.queue.depth", pending, Map::size)
+                .description("(user, post) pairs waiting to be flushed")
+                .register(meterRegistry);
+        Gauge.builder("likes.coalescing.collapse.ratio", this, LikeWriteBuffer::collapseRatio)
+                .description("Flushed like/unlike calls per row written")
+                .register(meterRegistry);
+        this.intents = Counter.builder("likes.coalescing.intents").register(meterRegistry);
+        this.writes = Counter.builder("likes.coalescing.writes").register(meterRegistry);
+        this.flushTimer = Timer.builder("likes.coalescing.flush").register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Buffers the intent to like (or unlike) a post.
+     *
+     * @param persistedState looks up whether the like is stored; only called
+     *                       when the pair is not buffered yet
+     * @return true if the effective state changed
+     */
+    public boolean record(LikeKey key, boolean liked, BooleanSupplier persistedState) {
+        boolean[] changed = new boolean[1];
+        Boolean persisted = null;
+        Intent recorded;
+        do {
+            // Look up outside compute() so the map is never locked across a query
+            if (persisted == null && !pending.containsKey(key)) {
+                persisted = persistedState.getAsBoolean();
+            }
+            Boolean stored = persisted;
+
+            flushLock.readLock().lock();
+            try {
+                recorded = pending.compute(key, (k, current) -> {
+                    if (current == null && stored == null) {
+                        // Flushed between the check and now: look the state up again
+                        return null;
+                    }
+                    Intent base = current != null ? current : new Intent(stored, stored, System.nanoTime(), 0);
+                    Intent next = new Intent(base.persisted(), liked, base.firstSeenNanos(), base.updates() + 1);
+                    changed[0] = base.desired() != liked;
+                    addPendingDelta(k.postId(), next.delta() - base.delta());
+                    return next;
+                });
+            } finally {
+                flushLock.readLock().unlock();
+            }
+        } while (recorded == null);
+
+        intents.increment();
+        if (pending.size() > maxPending && flushRequested.compareAndSet(false, true)) {
+            // Over the limit: flush now rather than at the next interval
+            flusher.execute(() -> {
+                flushRequested.set(false);
+                flushExpired();
+            });
+        }
+        return changed[0];
+    }
+
+    /**
+     * @return the buffered state of the pair, or null if nothing is buffered
+     */
+    public Boolean pendingState(LikeKey key) {
+        Intent intent = pending.get(key);
+        return intent != null ? intent.desired() : null;
+    }
+
+    /**
+     * Stored like count plus the net change still waiting in the buffer.
+     */
+    public long count(Long postId, LongSupplier storedCount) {
+        flushLock.readLock().lock();
+        try {
+            return storedCount.getAsLong() + pendingDeltas.getOrDefault(postId, 0L);
+        } finally {
+            flushLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Bulk variant of {@link #count}.
+     */
+    public Map<Long, Long> countAll(Supplier<Map<Long, Long>> storedCounts) {
+        flushLock.readLock().lock();
+        try {
+            Map<Long, Long> counts = storedCounts.get();
+            counts.replaceAll((postId, stored) -> stored + pendingDeltas.getOrDefault(postId, 0L));
+            return counts;
+        } finally {
+            flushLock.readLock().unlock();
+        }
+    }
+
+    public void flushExpired() {
+        if (enabled) {
+            try {
+                flush(pending.size() > maxPending);
+            } catch (RuntimeException e) {
+                // Thrown out of the periodic task, it would stop all later runs
+                logger.warn("Flushing buffered likes failed", e);
+            }
+        }
+    }
+
+    public void flushAll() {
+        if (enabled) {
+            flush(true);
+        }
+    }
+
+    @PreDestroy
+    public void close() throws InterruptedException {
+        if (flusher != null) {
+            flusher.shutdown();
+            flusher.awaitTermination(5, TimeUnit.SECONDS);
+        }
+        flushAll();
+    }
+
+    private synchronized void flush(boolean all) {
+        long cutoff = System.nanoTime() - windowNanos;
+        List<Map.Entry<LikeKey, Intent>> due = new ArrayList<>();
+        pending.forEach((key, intent) -> {
+            if (all || intent.firstSeenNanos() <= cutoff) {
+                due.add(Map.entry(key, intent));
+            }
+        });
+        if (due.isEmpty()) {
+            return;
+        }
+
+        Timer.Sample sample = Timer.start();
+        List<LikeBatchItemDTO> items = new ArrayList<>();
+        Set<Long> touchedPosts = new HashSet<>();
+        int flushed = 0;
+        for (Map.Entry<LikeKey, Intent> entry : due) {
+            Intent intent = entry.getValue();
+            flushed += intent.updates();
+            if (intent.delta() != 0) {
+                LikeKey key = entry.getKey();
+                items.add(LikeBatchItemDTO.builder()
+                        .userId(key.userId())
+                        .postId(key.postId())
+                        .action(intent.desired() ? LikeAction.LIKE : LikeAction.UNLIKE)
+                        .build());
+                touchedPosts.add(key.postId());
+            }
+        }
+
+        try {
+            if (!items.isEmpty()) {
+                likeBatchService.applyBatch(items, false);
+            }
+        } catch (RuntimeException e) {
+            // Entries stay buffered and are retried on the next run
+            logger.warn("Flushing {} buffered likes failed", items.size(), e);
+            return;
+        }
+
+        flushLock.writeLock().lock();
+        try {
+            for (Map.Entry<LikeKey, Intent> entry : due) {
+                Intent flushedIntent = entry.getValue();
+                pending.computeIfPresent(entry.getKey(), (key, current) -> {
+                    addPendingDelta(key.postId(), -flushedIntent.delta());
+                    // Updated during the flush: keep it, now relative to what was just written
+                    return current == flushedIntent
+                            ? null
+                            : new Intent(flushedIntent.desired(), current.desired(), current.firstSeenNanos(),
+                                    current.updates() - flushedIntent.updates());
+                });
+            }
+            touchedPosts.forEach(likeCounterStore::invalidate);
+        } finally {
+            flushLock.writeLock().unlock();
+        }
+
+        writes.increment(items.size());
+        flushedIntents.addAndGet(flushed);
+        flushedWrites.addAndGet(items.size());
+        sample.stop(flushTimer);
+    }
+
+    private void addPendingDelta(Long postId, long delta) {
+        if (delta != 0) {
+            pendingDeltas.merge(postId, delta, (a, b) -> a + b == 0 ? null : a + b);
+        }
+    }
+
+    private double collapseRatio() {
+        long written = flushedWrites.get();
+        return written == 0 ? 0 : (double) flushedIntents.get() / written;
+    }
+}
@@ -0,0 +1,110 @@
+package com.test.practice.service;
+
+import com.test.practice.dto.CommentDTO;
+import com.test.practice.dto.CursorPageDTO;
+import com.test.practice.dto.PostDTO;
+import com.test.practice.dto.PostDetailDTO;
+import com.test.practice.exception.ResourceNotFoundException;
+import com.test.practice.projection.PostDetailView;
+import com.test.practice.repository.PostRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Everything a post page needs in one call: the post with its author and
+ * category, the first page of comments, and the like and comment counts.
+ *
+ * The three parts are independent, so the comment page and the like count
+ * are fetched on a small pool while the calling thread reads the post. That
+ * is at most three statements (post row, comment page, like count), and only
+ * the post row once the comment page and like count are cached. Each part
+ * reads in its own transaction, so counts may be a moment apart from the
+ * post row.
+ *
+ * Every pooled task holds a connection while it runs, so the pool gets at
+ * most half the connection pool, leaving the rest to request threads. Its
+ * queue is bounded by the same number; once that is full the parts run on
+ * the calling thread one after another, so a request never waits behind a
+ * backlog and never holds more than its own connection.
+ */
+@Service
+public class PostDetailService {
+
+    private final PostRepository postRepository;
+    private final CommentService commentService;
+    private final PostLikeService postLikeService;
+    private final ThreadPoolExecutor executor;
+
+    public PostDetailService(PostRepository postRepository, CommentService commentService,
+            PostLikeService postLikeService,
+            @Value("${app.posts.detail.threads:8}") int threads,
+            @Value("${spring.datasource.hikari.maximum-pool-size:10}") int connections) {
+        this.postRepository = postRepository;
+        this.commentService = commentService;
+        this.postLikeService = postLikeService;
+        int poolSize = Math.max(1, Math.min(threads, connections / 2));
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(poolSize), runnable -> {
+                    Thread thread = new Thread(runnable, "post-detail-" + threadIndex.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    public PostDetailDTO getPostDetail(Long postId, int commentLimit) {
+        CompletableFuture<CursorPageDTO<CommentDTO>> comments = CompletableFuture.supplyAsync(
+                () -> commentService.getCommentsByPostId(postId, null, commentLimit), executor);
+        CompletableFuture<Long> likeCount = CompletableFuture.supplyAsync(
+                () -> postLikeService.countLikes(postId), executor);
+
+        PostDetailView post = postRepository.findDetailById(postId).orElse(null);
+        if (post == null) {
+            comments.cancel(false);
+            likeCount.cancel(false);
+            throw new ResourceNotFoundException("Post not found with id: " + postId);
+        }
+
+        PostDTO postDTO = PostDTO.builder()
+                .id(post.getId())
+                .title(post.getTitle())
+                .content(post.getContent() != null ? post.getContent() : post.getLegacyContent())
+                .excerpt(post.getExcerpt())
+                .categoryId(post.getCategoryId())
+                .categoryName(post.getCategoryName())
+                .likeCount(await(likeCount))
+                .commentCount(post.getCommentCount())
+                .build();
+        return PostDetailDTO.builder()
+                .post(postDTO)
+                .authorId(post.getUserId())
+                .authorName(post.getUserName())
+                .comments(await(comments))
+                .build();
+    }
+
+    @PreDestroy
+    public void close() {
+        executor.shutdown();
+    }
+
+    // Rethrows what the task threw, so exceptions surface as if called directly
+    private static <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
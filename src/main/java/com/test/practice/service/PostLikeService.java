@@ -1,18 +1,30 @@
 package com.test.practice.service;
 
+import com.test.practice.cache.LikeCounterStore;
+import com.test.practice.cache.LikedPostsCache;
+import com.test.practice.dto.CursorPageDTO;
+import com.test.practice.dto.HotPostDTO;
+import com.test.practice.dto.LikeResultDTO;
 import com.test.practice.dto.PostLikeDTO;
 import com.test.practice.dto.UserActivityReportDTO;
-import com.test.practice.entity.Post;
-import com.test.practice.entity.PostLike;
-import com.test.practice.entity.User;
 import com.test.practice.exception.ResourceNotFoundException;
+import com.test.practice.pagination.CursorCodec;
+import com.test.practice.projection.LikeStateView;
+import com.test.practice.projection.LikerView;
+import com.test.practice.projection.UserSummary;
+import com.test.practice.repository.LikeKey;
 import com.test.practice.repository.PostLikeRepository;
 import com.test.practice.repository.PostRepository;
 import com.test.practice.repository.UserRepository;
+import com.test.practice.sketch.HotPostTracker;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 @Service
 @Transactional
@@ -21,38 +33,187 @@ public class PostLikeService {
     private final PostLikeRepository postLikeRepository;
     private final UserRepository userRepository;
     private final PostRepository postRepository;
+    private final LikeCounterStore likeCounterStore;
+    private final LikeWriteBuffer likeWriteBuffer;
+    private final LikedPostsCache likedPostsCache;
+    private final HotPostTracker hotPostTracker;
+    private final SlottedLikeCounter slottedLikeCounter;
 
     public PostLikeService(PostLikeRepository postLikeRepository, UserRepository userRepository,
-            PostRepository postRepository) {
+            PostRepository postRepository, LikeCounterStore likeCounterStore, LikeWriteBuffer likeWriteBuffer,
+            LikedPostsCache likedPostsCache, HotPostTracker hotPostTracker, SlottedLikeCounter slottedLikeCounter) {
         this.postLikeRepository = postLikeRepository;
         this.userRepository = userRepository;
         this.postRepository = postRepository;
+        this.likeCounterStore = likeCounterStore;
+        this.likeWriteBuffer = likeWriteBuffer;
+        this.likedPostsCache = likedPostsCache;
+        this.hotPostTracker = hotPostTracker;
+        this.slottedLikeCounter = slottedLikeCounter;
     }
 
-    public void likePost(PostLikeDTO likeDTO) {
-        if (postLikeRepository.existsByUserIdAndPostId(likeDTO.getUserId(), likeDTO.getPostId())) {
-            throw new RuntimeException("User already liked this post");
+    /**
+     * Idempotent like: one insert, with duplicates (including concurrent
+     * double-clicks) reported as "unchanged" instead of failing. Missing users
+     * or posts surface as foreign key violations and are only then looked up
+     * to build the 404 message.
+     */
+    public LikeResultDTO likePost(PostLikeDTO likeDTO) {
+        Long userId = likeDTO.getUserId();
+        Long postId = likeDTO.getPostId();
+        if (likeWriteBuffer.isEnabled()) {
+            return bufferIntent(userId, postId, true);
         }
 
-        User user = userRepository.findById(likeDTO.getUserId())
-                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
-        Post post = postRepository.findById(likeDTO.getPostId())
-                .orElseThrow(() -> new ResourceNotFoundException("Post not found"));
+        boolean inserted;
+        try {
+            inserted = postLikeRepository.insertLikeIfAbsent(userId, postId);
+        } catch (DataIntegrityViolationException e) {
+            throw notFound(userId, postId);
+        }
 
-        PostLike like = PostLike.builder()
-                .user(user)
-                .post(post)
-                .build();
-        postLikeRepository.save(like);
+        if (inserted) {
+            slottedLikeCounter.adjust(postId, 1);
+            TransactionCallbacks.afterCommit(() -> {
+                likeCounterStore.add(postId, 1);
+                likedPostsCache.added(userId, postId);
+                hotPostTracker.record(postId);
+            });
+        }
+        return new LikeResultDTO(userId, postId, true, inserted);
     }
 
-    public void unlikePost(Long userId, Long postId) {
-        postLikeRepository.deleteLikeNative(userId, postId);
+    /**
+     * Idempotent unlike: a single delete; unliking twice is not an error.
+     */
+    public LikeResultDTO unlikePost(Long userId, Long postId) {
+        if (likeWriteBuffer.isEnabled()) {
+            return bufferIntent(userId, postId, false);
+        }
+
+        boolean deleted = postLikeRepository.deleteLikeNative(userId, postId) > 0;
+        if (deleted) {
+            slottedLikeCounter.adjust(postId, -1);
+            TransactionCallbacks.afterCommit(() -> {
+                likeCounterStore.add(postId, -1);
+                likedPostsCache.removed(userId, postId);
+            });
+        }
+        return new LikeResultDTO(userId, postId, false, deleted);
     }
 
-    @Transactional(readOnly = true)
+    private LikeResultDTO bufferIntent(Long userId, Long postId, boolean liked) {
+        boolean changed = likeWriteBuffer.record(new LikeKey(userId, postId), liked, () -> {
+            LikeStateView state = postLikeRepository.findLikeState(userId, postId);
+            if (state.getUserCount() == 0) {
+                throw new ResourceNotFoundException("User not found");
+            }
+            if (state.getPostCount() == 0) {
+                throw new ResourceNotFoundException("Post not found");
+            }
+            return state.getLikedCount() > 0;
+        });
+        if (changed && liked) {
+            hotPostTracker.record(postId);
+        }
+        return new LikeResultDTO(userId, postId, liked, changed);
+    }
+
+    private ResourceNotFoundException notFound(Long userId, Long postId) {
+        if (userId == null || !userRepository.existsById(userId)) {
+            return new ResourceNotFoundException("User not found");
+        }
+        return new ResourceNotFoundException("Post not found");
+    }
+
+    /**
+     * Called before a user is deleted: their likes go away by cascade, so the
+     * like_count of every post they liked is decremented here.
+     */
+    public void releaseLikesOfUser(Long userId) {
+        List<Long> likedPostIds = postLikeRepository.findPostIdsByUserId(userId);
+        if (likedPostIds.isEmpty()) {
+            return;
+        }
+        postRepository.decrementLikeCountsLikedBy(userId);
+        TransactionCallbacks.afterCommit(() -> {
+            likedPostIds.forEach(likeCounterStore::invalidate);
+            likedPostsCache.invalidate(userId);
+        });
+    }
+
+    // SUPPORTS: a cached count must not open a transaction (and borrow a
+    // connection) just to read a number from memory.
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public Long countLikes(Long postId) {
-        return postLikeRepository.countLikesByPostId(postId);
+        if (likeWriteBuffer.isEnabled()) {
+            return likeWriteBuffer.count(postId, () -> likeCounterStore.get(postId));
+        }
+        return likeCounterStore.get(postId);
+    }
+
+    /**
+     * Like counts for a page of posts; posts without likes (or that do not
+     * exist) count as zero.
+     */
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public Map<Long, Long> countLikes(Collection<Long> postIds) {
+        if (likeWriteBuffer.isEnabled()) {
+            return likeWriteBuffer.countAll(() -> likeCounterStore.getAll(postIds));
+        }
+        return likeCounterStore.getAll(postIds);
+    }
+
+    // Sees likes that are still buffered when write coalescing is enabled
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public boolean hasLiked(Long userId, Long postId) {
+        Boolean pending = likeWriteBuffer.pendingState(new LikeKey(userId, postId));
+        return pending != null ? pending : postLikeRepository.existsByUserIdAndPostId(userId, postId);
+    }
+
+    /**
+     * Liked flag for each post, answered from the user's cached bitmap (one
+     * query on first use) overlaid with any buffered likes.
+     */
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public Map<Long, Boolean> hasLiked(Long userId, Collection<Long> postIds) {
+        Map<Long, Boolean> liked = likedPostsCache.contains(userId, postIds);
+        if (likeWriteBuffer.isEnabled()) {
+            liked.replaceAll((postId, stored) -> {
+                Boolean pending = likeWriteBuffer.pendingState(new LikeKey(userId, postId));
+                return pending != null ? pending : stored;
+            });
+        }
+        return liked;
+    }
+
+    /**
+     * Posts with the most new likes in the recent window, from an in-memory
+     * sketch; no query is run.
+     */
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public List<HotPostDTO> getHotPosts(int limit) {
+        return hotPostTracker.top(limit).stream()
+                .map(hot -> new HotPostDTO(hot.postId(), hot.count(), hot.error()))
+                .toList();
+    }
+
+    /**
+     * Users who liked the post, newest like first, one keyset page at a time.
+     * No total is computed; a page of limit + 1 rows tells whether more exist.
+     */
+    @Transactional(readOnly = true)
+    public CursorPageDTO<UserSummary> getLikers(Long postId, String after, int limit) {
+        long beforeLikeId = after != null ? CursorCodec.decode(after, 1)[0] : Long.MAX_VALUE;
+        List<LikerView> rows = postLikeRepository.findLikers(postId, beforeLikeId, limit + 1);
+        if (rows.isEmpty() && after == null && !postRepository.existsById(postId)) {
+            throw new ResourceNotFoundException("Post not found");
+        }
+
+        boolean hasMore = rows.size() > limit;
+        List<UserSummary> items = List.copyOf(hasMore ? rows.subList(0, limit) : rows);
+        String nextCursor = hasMore ? CursorCodec.encode(rows.get(limit - 1).getLikeId()) : null;
+        return new CursorPageDTO<>(items, nextCursor, hasMore);
     }
 
     @Transactional(readOnly = true)
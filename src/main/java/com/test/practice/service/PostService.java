@@ -1,10 +1,12 @@
 package com.test.practice.service;
 
+import com.test.practice.dto.CursorPageDTO;
 import com.test.practice.dto.PostDTO;
 import com.test.practice.entity.Post;
 import com.test.practice.projection.PostView;
 import com.test.practice.entity.User;
 import com.test.practice.exception.ResourceNotFoundException;
+import com.test.practice.pagination.CursorCodec;
 import com.test.practice.repository.PostRepository;
 import com.test.practice.repository.UserRepository;
 import org.slf4j.Logger;
@@ -14,7 +16,11 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Objects;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+
+import java.util.List;
 
 @Service
 public class PostService {
@@ -77,6 +83,27 @@ public class PostService {
                 .map(this::mapToDTO);
     }
 
+    /**
+     * Retrieve a user's posts newest first, one keyset page at a time. Unlike
+     * the paged variant there is no COUNT query and no OFFSET scan, so deep
+     * pages cost the same as the first one.
+     */
+    @Transactional(readOnly = true)
+    public CursorPageDTO<PostDTO> getPostsByUserIdAfter(Long userId, String after, int limit) {
+        Objects.requireNonNull(userId, "userId must not be null");
+
+        long beforeId = after != null ? CursorCodec.decode(after, 1)[0] : Long.MAX_VALUE;
+        Slice<PostView> slice = postRepository.findByUserIdAndIdLessThanOrderByIdDesc(userId, beforeId,
+                PageRequest.ofSize(limit));
+        if (!slice.hasContent() && after == null && !userRepository.existsById(userId)) {
+            throw new ResourceNotFoundException("User not found with id: " + userId);
+        }
+
+        List<PostDTO> items = slice.map(this::mapToDTO).getContent();
+        String nextCursor = slice.hasNext() ? CursorCodec.encode(items.get(items.size() - 1).getId()) : null;
+        return new CursorPageDTO<>(items, nextCursor, slice.hasNext());
+    }
+
     private PostDTO mapToDTO(PostView post) {
         if (post == null) {
             return null;
@@ -84,9 +111,11 @@ public class PostService {
         return PostDTO.builder()
                 .id(post.getId())
                 .title(post.getTitle())
-                .content(post.getContent())
+                .excerpt(post.getExcerpt())
                 .categoryId(post.getCategory() != null ? post.getCategory().getId() : null)
                 .categoryName(post.getCategory() != null ? post.getCategory().getName() : null)
+                .likeCount(post.getLikeCount())
+                .commentCount(post.getCommentCount())
                 .build();
     }
 
@@ -98,8 +127,11 @@ public class PostService {
                 .id(post.getId())
                 .title(post.getTitle())
                 .content(post.getContent())
+                .excerpt(post.getExcerpt())
                 .categoryId(post.getCategory() != null ? post.getCategory().getId() : null)
                 .categoryName(post.getCategory() != null ? post.getCategory().getName() : null)
+                .likeCount(post.getLikeCount())
+                .commentCount(post.getCommentCount())
                 .build();
     }
 }
@@ -0,0 +1,150 @@
+package com.test.practice.service;
+
+import com.test.practice.repository.PostLikeCounterRepository;
+import com.test.practice.repository.PostRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Optional sharded like counter for hot posts (app.likes.slotted-counters.enabled).
+ *
+ * By default a like updates the single {@code posts.like_count} row, which
+ * serializes every concurrent like of the same post on one row lock. When
+ * that update is seen waiting longer than the contention threshold, the post
+ * is given a number of slots in {@code post_like_counters} and each like then
+ * increments a random slot, spreading the lock. Slots double on further
+ * contention up to {@code max-slots}; {@link #setSlots} sets them explicitly.
+ *
+ * Readers sum {@code like_count} and the slots (see PostRepository). A
+ * periodic fold moves slot totals back into {@code like_count}, so the column
+ * on the entity lags by at most one fold interval, and posts that have not
+ * seen contention for the cool-down go back to the single row.
+ */
+@Component
+public class SlottedLikeCounter {
+
+    private static final Logger logger = LoggerFactory.getLogger(SlottedLikeCounter.class);
+
+    private record Slotting(int slots, long lastContendedNanos) {
+    }
+
+    private final PostRepository postRepository;
+    private final PostLikeCounterRepository postLikeCounterRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final long contentionNanos;
+    private final int initialSlots;
+    private final int maxSlots;
+    private final long coolDownNanos;
+
+    private final Map<Long, Slotting> slotted = new ConcurrentHashMap<>();
+    private final Counter promotions;
+
+    public SlottedLikeCounter(PostRepository postRepository, PostLikeCounterRepository postLikeCounterRepository,
+            TransactionTemplate transactionTemplate, MeterRegistry meterRegistry,
+            @Value("${app.likes.slotted-counters.enabled:false}") boolean enabled,
+            @Value("${app.likes.slotted-counters.contention-ms:20}") long contentionMs,
+            @Value("${app.likes.slotted-counters.initial-slots:8}") int initialSlots,
+            @Value("${app.likes.slotted-counters.max-slots:64}") int maxSlots,
+            @Value("${app.likes.slotted-counters.cool-down:10m}") Duration coolDown) {
+        this.postRepository = postRepository;
+        this.postLikeCounterRepository = postLikeCounterRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.enabled = enabled;
+        this.contentionNanos = Duration.ofMillis(contentionMs).toNanos();
+        this.initialSlots = initialSlots;
+        this.maxSlots = maxSlots;
+        this.coolDownNanos = coolDown.toNanos();
+
+        Gauge.builder("likes.slotted.posts", slotted, Map::size)
+                .description("Posts whose like counter is currently spread over slots")
+                .register(meterRegistry);
+        this.promotions = Counter.builder("likes.slotted.promotions").register(meterRegistry);
+    }
+
+    /**
+     * Applies a like count change inside the caller's transaction.
+     */
+    public void adjust(Long postId, long delta) {
+        if (!enabled) {
+            postRepository.adjustLikeCount(postId, delta);
+            return;
+        }
+
+        Slotting slotting = slotted.get(postId);
+        long start = System.nanoTime();
+        if (slotting == null) {
+            postRepository.adjustLikeCount(postId, delta);
+        } else {
+            int slot = ThreadLocalRandom.current().nextInt(slotting.slots());
+            postLikeCounterRepository.incrementSlot(postId, slot, delta);
+        }
+        if (System.nanoTime() - start > contentionNanos) {
+            contended(postId);
+        }
+    }
+
+    /**
+     * @return current number of slots for the post; 1 means the single row
+     */
+    public int slotsOf(Long postId) {
+        Slotting slotting = slotted.get(postId);
+        return slotting != null ? slotting.slots() : 1;
+    }
+
+    /**
+     * Spreads the post's counter over the given number of slots, or returns it
+     * to the single row when slots is 1. Manual settings are kept for the
+     * cool-down like automatic ones.
+     */
+    public void setSlots(Long postId, int slots) {
+        if (slots <= 1) {
+            slotted.remove(postId);
+        } else {
+            slotted.put(postId, new Slotting(Math.min(slots, maxSlots), System.nanoTime()));
+        }
+    }
+
+    private void contended(Long postId) {
+        Slotting next = slotted.compute(postId, (id, current) -> {
+            int slots = current == null ? initialSlots : Math.min(current.slots() * 2, maxSlots);
+            return new Slotting(slots, System.nanoTime());
+        });
+        promotions.increment();
+        logger.debug("Like counter of post {} contended, now {} slots", postId, next.slots());
+    }
+
+    /**
+     * Folds slot totals back into like_count, one short transaction per post,
+     * and drops posts that have cooled down back to the single row.
+     */
+    @Scheduled(fixedDelayString = "${app.likes.slotted-counters.fold-interval-ms:1000}")
+    public void fold() {
+        if (!enabled) {
+            return;
+        }
+        long now = System.nanoTime();
+        slotted.entrySet().removeIf(entry -> now - entry.getValue().lastContendedNanos() > coolDownNanos);
+
+        for (Long postId : postLikeCounterRepository.findSlottedPostIds()) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> postLikeCounterRepository.foldSlots(postId));
+            } catch (RuntimeException e) {
+                // Slots stay in place and are still counted by readers
+                logger.warn("Folding like counter slots of post {} failed", postId, e);
+            }
+        }
+    }
+}
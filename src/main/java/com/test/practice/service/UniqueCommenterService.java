@@ -0,0 +1,137 @@
+package com.test.practice.service;
+
+import com.test.practice.dto.UniqueCommentersDTO;
+import com.test.practice.exception.ResourceNotFoundException;
+import com.test.practice.repository.CategoryRepository;
+import com.test.practice.repository.CommentRepository;
+import com.test.practice.repository.PostCommenterSketchRepository;
+import com.test.practice.repository.PostRepository;
+import com.test.practice.sketch.HyperLogLog;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Approximate distinct commenters per post, kept as a HyperLogLog sketch in
+ * {@code post_commenter_sketches} instead of a COUNT(DISTINCT user_id) over
+ * the thread. See {@link HyperLogLog} for the error bounds.
+ *
+ * A post's sketch is built from its comments the first time it is needed
+ * and then updated as comments are added. Most comments come from people
+ * already counted or do not raise a register, and those cost one read;
+ * the row is only locked and rewritten when the sketch changes.
+ *
+ * Category counts only read: posts without a sketch yet are counted from
+ * their comments without storing one.
+ *
+ * Sketches cannot forget: people whose comments were deleted stay counted.
+ */
+@Service
+@Transactional
+public class UniqueCommenterService {
+
+    // Post ids per IN list when reading a category
+    private static final int CHUNK_SIZE = 500;
+
+    private final PostCommenterSketchRepository sketchRepository;
+    private final CommentRepository commentRepository;
+    private final PostRepository postRepository;
+    private final CategoryRepository categoryRepository;
+
+    public UniqueCommenterService(PostCommenterSketchRepository sketchRepository,
+            CommentRepository commentRepository, PostRepository postRepository,
+            CategoryRepository categoryRepository) {
+        this.sketchRepository = sketchRepository;
+        this.commentRepository = commentRepository;
+        this.postRepository = postRepository;
+        this.categoryRepository = categoryRepository;
+    }
+
+    /**
+     * Adds commenters to the post's sketch inside the caller's transaction,
+     * after their comments were inserted.
+     */
+    public void recordCommenters(Long postId, Collection<Long> userIds) {
+        byte[] stored = sketchRepository.findRegisters(postId).orElse(null);
+        if (stored == null) {
+            // Built from the comments, which already include the new ones
+            load(postId);
+            return;
+        }
+        HyperLogLog sketch = HyperLogLog.fromBytes(stored);
+        if (userIds.stream().noneMatch(sketch::wouldChange)) {
+            return;
+        }
+
+        // Re-read under the lock so concurrent updates are merged, not overwritten
+        sketch = HyperLogLog.fromBytes(sketchRepository.lockRegisters(postId).orElseThrow());
+        boolean changed = false;
+        for (Long userId : userIds) {
+            changed |= sketch.add(userId);
+        }
+        if (changed) {
+            sketchRepository.updateRegisters(postId, sketch.toBytes());
+        }
+    }
+
+    public UniqueCommentersDTO countForPost(Long postId) {
+        byte[] stored = sketchRepository.findRegisters(postId).orElse(null);
+        if (stored != null) {
+            return toDTO(HyperLogLog.fromBytes(stored));
+        }
+        if (postRepository.findExistingIds(List.of(postId)).isEmpty()) {
+            throw new ResourceNotFoundException("Post not found with id: " + postId);
+        }
+        return toDTO(load(postId));
+    }
+
+    /**
+     * Distinct commenters over all posts of a category, by merging the
+     * posts' sketches; someone who commented on several posts counts once.
+     */
+    @Transactional(readOnly = true)
+    public UniqueCommentersDTO countForCategory(Long categoryId) {
+        if (!categoryRepository.existsById(categoryId)) {
+            throw new ResourceNotFoundException("Category not found with id " + categoryId);
+        }
+        List<Long> postIds = postRepository.findCommentedIdsByCategoryId(categoryId);
+
+        HyperLogLog union = new HyperLogLog();
+        for (int from = 0; from < postIds.size(); from += CHUNK_SIZE) {
+            List<Long> chunk = postIds.subList(from, Math.min(from + CHUNK_SIZE, postIds.size()));
+            Map<Long, byte[]> stored = sketchRepository.findRegistersByPostIds(chunk);
+            stored.values().forEach(registers -> union.merge(HyperLogLog.fromBytes(registers)));
+
+            // No sketch yet: one query for the commenters of all of them; sketches are built on write
+            List<Long> unsketched = chunk.stream().filter(postId -> !stored.containsKey(postId)).toList();
+            if (!unsketched.isEmpty()) {
+                commentRepository.findCommenterIdsByPostIds(unsketched).forEach(union::add);
+            }
+        }
+        return toDTO(union);
+    }
+
+    // Builds the sketch from the post's comments and stores it
+    private HyperLogLog load(Long postId) {
+        HyperLogLog sketch = new HyperLogLog();
+        commentRepository.findCommenterIdsByPostId(postId).forEach(sketch::add);
+        if (!sketchRepository.insertRegisters(postId, sketch.toBytes())) {
+            // Built concurrently from the same comments; merge in case theirs saw fewer
+            HyperLogLog current = HyperLogLog.fromBytes(sketchRepository.lockRegisters(postId).orElseThrow());
+            current.merge(sketch);
+            sketchRepository.updateRegisters(postId, current.toBytes());
+            return current;
+        }
+        return sketch;
+    }
+
+    private static UniqueCommentersDTO toDTO(HyperLogLog sketch) {
+        return UniqueCommentersDTO.builder()
+                .estimate(sketch.estimate())
+                .standardError(HyperLogLog.STANDARD_ERROR)
+                .build();
+    }
+}
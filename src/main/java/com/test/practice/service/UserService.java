@@ -2,9 +2,10 @@ package com.test.practice.service;
 
 import com.test.practice.dto.PostDTO;
 import com.test.practice.dto.UserDTO;
-import com.test.practice.entity.Post;
 import com.test.practice.entity.User;
 import com.test.practice.exception.ResourceNotFoundException;
+import com.test.practice.projection.PostListingView;
+import com.test.practice.repository.PostRepository;
 import com.test.practice.repository.UserRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -12,6 +13,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.stream.Collectors;
 
@@ -21,9 +23,16 @@ public class UserService {
     private static final Logger logger = LoggerFactory.getLogger(UserService.class);
 
     private final UserRepository userRepository;
+    private final PostRepository postRepository;
+    private final PostLikeService postLikeService;
+    private final CommentService commentService;
 
-    public UserService(UserRepository userRepository) {
+    public UserService(UserRepository userRepository, PostRepository postRepository,
+            PostLikeService postLikeService, CommentService commentService) {
         this.userRepository = Objects.requireNonNull(userRepository, "userRepository must not be null");
+        this.postRepository = Objects.requireNonNull(postRepository, "postRepository must not be null");
+        this.postLikeService = Objects.requireNonNull(postLikeService, "postLikeService must not be null");
+        this.commentService = Objects.requireNonNull(commentService, "commentService must not be null");
     }
 
     @Transactional
@@ -36,13 +45,15 @@ public class UserService {
 
         User savedUser = userRepository.save(user);
         logger.debug("Created user with id={}", savedUser.getId());
-        return mapToDTO(savedUser);
+        return mapToDTO(savedUser, null);
     }
 
     @Transactional(readOnly = true)
     public List<UserDTO> getAllUsers() {
-        return userRepository.findAll().stream()
-                .map(UserService::mapToDTO)
+        List<User> users = userRepository.findAll();
+        Map<Long, List<PostDTO>> posts = findPostListings(users.stream().map(User::getId).toList());
+        return users.stream()
+                .map(user -> mapToDTO(user, posts.getOrDefault(user.getId(), List.of())))
                 .collect(Collectors.toList());
     }
 
@@ -52,7 +63,7 @@ public class UserService {
 
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + id));
-        return mapToDTO(user);
+        return mapToDTO(user, findPostListings(List.of(id)).getOrDefault(id, List.of()));
     }
 
     @Transactional
@@ -62,29 +73,40 @@ public class UserService {
         if (!userRepository.existsById(id)) {
             throw new ResourceNotFoundException("User not found with id: " + id);
         }
+        postLikeService.releaseLikesOfUser(id);
+        commentService.releaseCommentsOfUser(id);
         userRepository.deleteById(id);
         logger.debug("Deleted user with id={}", id);
     }
 
-    private static UserDTO mapToDTO(User user) {
-        List<PostDTO> postDTOs = user.getPosts() != null
-                ? user.getPosts().stream().map(UserService::mapToPostDTO).collect(Collectors.toList())
-                : null;
+    // Post listings (excerpt, no content) of all given users in one query, by user id
+    private Map<Long, List<PostDTO>> findPostListings(List<Long> userIds) {
+        if (userIds.isEmpty()) {
+            return Map.of();
+        }
+        return postRepository.findListingsByUserIdIn(userIds).stream()
+                .collect(Collectors.groupingBy(PostListingView::getUserId,
+                        Collectors.mapping(UserService::mapToPostDTO, Collectors.toList())));
+    }
+
+    private static UserDTO mapToDTO(User user, List<PostDTO> posts) {
         return UserDTO.builder()
                 .id(user.getId())
                 .name(user.getName())
                 .email(user.getEmail())
-                .posts(postDTOs)
+                .posts(posts)
                 .build();
     }
 
-    private static PostDTO mapToPostDTO(Post post) {
+    private static PostDTO mapToPostDTO(PostListingView post) {
         return PostDTO.builder()
                 .id(post.getId())
                 .title(post.getTitle())
-                .content(post.getContent())
-                .categoryId(post.getCategory() != null ? post.getCategory().getId() : null)
-                .categoryName(post.getCategory() != null ? post.getCategory().getName() : null)
+                .excerpt(post.getExcerpt())
+                .categoryId(post.getCategoryId())
+                .categoryName(post.getCategoryName())
+                .likeCount(post.getLikeCount())
+                .commentCount(post.getCommentCount())
                 .build();
     }
 }
@@ -0,0 +1,97 @@
+package com.test.practice.sketch;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Posts receiving the most likes over a sliding time window.
+ *
+ * The window is split into {@code buckets} time slices, each with its own
+ * {@link SpaceSaving} summary of {@code capacity} counters, so memory is
+ * buckets x capacity entries no matter how many distinct posts are liked.
+ * Slices older than the window are cleared lazily as time moves on.
+ *
+ * Slices are merged at query time: a post missing from a slice is charged
+ * that slice's minimum count. The reported count is therefore an upper bound
+ * on the post's likes in the window, and {@code error} bounds the
+ * overestimation: error &lt;= likes in the window / capacity. Any post with
+ * more than that many likes in the window is reported.
+ */
+@Component
+public class HotPostTracker {
+
+    public record HotPost(long postId, long count, long error) {
+    }
+
+    private final Clock clock;
+    private final long bucketMillis;
+    private final SpaceSaving[] buckets;
+    private final long[] bucketEpochs;
+
+    @Autowired
+    public HotPostTracker(@Value("${app.likes.hot-posts.capacity:1000}") int capacity,
+            @Value("${app.likes.hot-posts.window:5m}") Duration window,
+            @Value("${app.likes.hot-posts.buckets:10}") int buckets) {
+        this(capacity, window, buckets, Clock.systemUTC());
+    }
+
+    public HotPostTracker(int capacity, Duration window, int buckets, Clock clock) {
+        this.clock = clock;
+        this.bucketMillis = Math.max(1, window.toMillis() / buckets);
+        this.buckets = new SpaceSaving[buckets];
+        this.bucketEpochs = new long[buckets];
+        for (int i = 0; i < buckets; i++) {
+            this.buckets[i] = new SpaceSaving(capacity);
+            this.bucketEpochs[i] = -1;
+        }
+    }
+
+    public synchronized void record(long postId) {
+        currentBucket().offer(postId);
+    }
+
+    public synchronized List<HotPost> top(int limit) {
+        long epoch = clock.millis() / bucketMillis;
+        List<SpaceSaving> live = new ArrayList<>();
+        Set<Long> candidates = new HashSet<>();
+        for (int i = 0; i < buckets.length; i++) {
+            if (bucketEpochs[i] > epoch - buckets.length) {
+                live.add(buckets[i]);
+                buckets[i].estimates().forEach(estimate -> candidates.add(estimate.key()));
+            }
+        }
+
+        List<HotPost> merged = new ArrayList<>(candidates.size());
+        for (Long postId : candidates) {
+            long count = 0;
+            long error = 0;
+            for (SpaceSaving bucket : live) {
+                SpaceSaving.Estimate estimate = bucket.get(postId);
+                count += estimate != null ? estimate.count() : bucket.minCount();
+                error += estimate != null ? estimate.error() : bucket.minCount();
+            }
+            merged.add(new HotPost(postId, count, error));
+        }
+        merged.sort(Comparator.comparingLong(HotPost::count).reversed());
+        return List.copyOf(merged.subList(0, Math.min(limit, merged.size())));
+    }
+
+    private SpaceSaving currentBucket() {
+        long epoch = clock.millis() / bucketMillis;
+        int index = (int) (epoch % buckets.length);
+        if (bucketEpochs[index] != epoch) {
+            buckets[index].clear();
+            bucketEpochs[index] = epoch;
+        }
+        return buckets[index];
+    }
+}
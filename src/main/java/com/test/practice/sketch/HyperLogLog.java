@@ -0,0 +1,117 @@
+package com.test.practice.sketch;
+
+/**
+ * HyperLogLog distinct-count sketch (Flajolet et al.) over long values, with
+ * 2^11 one-byte registers, so a sketch is 2 KiB whatever the cardinality.
+ *
+ * <ul>
+ * <li>standard error 1.04 / sqrt(2048), about 2.3%: two estimates in three
+ * are within 2.3% of the true count, 95% within 4.6%,</li>
+ * <li>small cardinalities (below 2.5 x 2048) use linear counting over the
+ * empty registers and are close to exact,</li>
+ * <li>sketches merge losslessly: the merge of two sketches is the sketch of
+ * the union, so per-post sketches add up to category totals without double
+ * counting people who commented on several posts.</li>
+ * </ul>
+ * Values are hashed with a 64-bit mixer, so sequential ids spread evenly.
+ * Not thread-safe.
+ */
+public class HyperLogLog {
+
+    public static final int PRECISION = 11;
+    public static final int REGISTERS = 1 << PRECISION;
+    public static final double STANDARD_ERROR = 1.04 / Math.sqrt(REGISTERS);
+
+    private static final double ALPHA = 0.7213 / (1 + 1.079 / REGISTERS);
+
+    private final byte[] registers;
+
+    public HyperLogLog() {
+        this.registers = new byte[REGISTERS];
+    }
+
+    /**
+     * Wraps serialized registers, as returned by {@link #toBytes}.
+     */
+    public static HyperLogLog fromBytes(byte[] bytes) {
+        if (bytes.length != REGISTERS) {
+            throw new IllegalArgumentException("Expected " + REGISTERS + " registers, got " + bytes.length);
+        }
+        return new HyperLogLog(bytes.clone());
+    }
+
+    private HyperLogLog(byte[] registers) {
+        this.registers = registers;
+    }
+
+    /**
+     * @return true if the sketch changed, i.e. it has to be stored again
+     */
+    public boolean add(long value) {
+        long hash = mix(value);
+        int index = index(hash);
+        byte rank = rank(hash);
+        if (registers[index] >= rank) {
+            return false;
+        }
+        registers[index] = rank;
+        return true;
+    }
+
+    /**
+     * @return true if adding the value would change the sketch
+     */
+    public boolean wouldChange(long value) {
+        long hash = mix(value);
+        return registers[index(hash)] < rank(hash);
+    }
+
+    public void merge(HyperLogLog other) {
+        for (int i = 0; i < REGISTERS; i++) {
+            if (other.registers[i] > registers[i]) {
+                registers[i] = other.registers[i];
+            }
+        }
+    }
+
+    public long estimate() {
+        double sum = 0;
+        int zeros = 0;
+        for (byte register : registers) {
+            sum += 1.0 / (1L << register);
+            if (register == 0) {
+                zeros++;
+            }
+        }
+        double estimate = ALPHA * REGISTERS * REGISTERS / sum;
+        if (estimate <= 2.5 * REGISTERS && zeros > 0) {
+            estimate = REGISTERS * Math.log((double) REGISTERS / zeros);
+        }
+        return Math.round(estimate);
+    }
+
+    public byte[] toBytes() {
+        return registers.clone();
+    }
+
+    // Register chosen by the top PRECISION bits
+    private static int index(long hash) {
+        return (int) (hash >>> (Long.SIZE - PRECISION));
+    }
+
+    // Leading zeros of the remaining bits, plus one; the sentinel bit caps it
+    private static byte rank(long hash) {
+        return (byte) (Long.numberOfLeadingZeros((hash << PRECISION) | (1L << (PRECISION - 1))) + 1);
+    }
+
+    // MurmurHash3 64-bit finalizer
+    private static long mix(long value) {
+        long h = value;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,143 @@
+package com.test.practice.sketch;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Space-Saving heavy-hitter summary (Metwally et al.) over long keys.
+ *
+ * Tracks at most {@code capacity} keys. When a new key arrives and the summary
+ * is full, the key with the smallest count is replaced and the newcomer
+ * inherits that count as its possible overestimation. For a stream of N
+ * offers:
+ * <ul>
+ * <li>every estimate is an upper bound: true &lt;= count &lt;= true + error,</li>
+ * <li>error &lt;= minCount() &lt;= N / capacity,</li>
+ * <li>every key with a true count above N / capacity is tracked.</li>
+ * </ul>
+ * Counters live in an indexed min-heap, so an offer is O(log capacity).
+ * Not thread-safe.
+ */
+public class SpaceSaving {
+
+    public record Estimate(long key, long count, long error) {
+    }
+
+    private final int capacity;
+    private final long[] keys;
+    private final long[] counts;
+    private final long[] errors;
+    private final Map<Long, Integer> positions;
+    private int size;
+    private long total;
+
+    public SpaceSaving(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+        this.capacity = capacity;
+        this.keys = new long[capacity];
+        this.counts = new long[capacity];
+        this.errors = new long[capacity];
+        this.positions = new HashMap<>(capacity * 2);
+    }
+
+    public void offer(long key) {
+        total++;
+        Integer position = positions.get(key);
+        if (position != null) {
+            counts[position]++;
+            siftDown(position);
+            return;
+        }
+        if (size < capacity) {
+            set(size, key, 1, 0);
+            siftUp(size++);
+            return;
+        }
+        long min = counts[0];
+        positions.remove(keys[0]);
+        set(0, key, min + 1, min);
+        siftDown(0);
+    }
+
+    /**
+     * @return the estimate for a tracked key, or null if the key is not tracked
+     */
+    public Estimate get(long key) {
+        Integer position = positions.get(key);
+        return position == null ? null : new Estimate(key, counts[position], errors[position]);
+    }
+
+    /**
+     * Upper bound on the true count of any key that is not tracked.
+     */
+    public long minCount() {
+        return size < capacity ? 0 : counts[0];
+    }
+
+    public long total() {
+        return total;
+    }
+
+    public List<Estimate> estimates() {
+        List<Estimate> estimates = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            estimates.add(new Estimate(keys[i], counts[i], errors[i]));
+        }
+        return estimates;
+    }
+
+    public void clear() {
+        positions.clear();
+        size = 0;
+        total = 0;
+    }
+
+    private void set(int position, long key, long count, long error) {
+        keys[position] = key;
+        counts[position] = count;
+        errors[position] = error;
+        positions.put(key, position);
+    }
+
+    private void siftUp(int position) {
+        while (position > 0) {
+            int parent = (position - 1) / 2;
+            if (counts[parent] <= counts[position]) {
+                return;
+            }
+            swap(position, parent);
+            position = parent;
+        }
+    }
+
+    private void siftDown(int position) {
+        while (true) {
+            int smallest = position;
+            int left = 2 * position + 1;
+            int right = left + 1;
+            if (left < size && counts[left] < counts[smallest]) {
+                smallest = left;
+            }
+            if (right < size && counts[right] < counts[smallest]) {
+                smallest = right;
+            }
+            if (smallest == position) {
+                return;
+            }
+            swap(position, smallest);
+            position = smallest;
+        }
+    }
+
+    private void swap(int a, int b) {
+        long key = keys[a];
+        long count = counts[a];
+        long error = errors[a];
+        set(a, keys[b], counts[b], errors[b]);
+        set(b, key, count, error);
+    }
+}
@@ -0,0 +1,321 @@
+package com.test.practice.stream;
+
+import com.test.practice.dto.CommentDTO;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-process fan-out of new comments to the subscribers of a post.
+ *
+ * Publishing only enqueues the comment on each subscriber's buffer; a small
+ * pool of sender threads writes buffers out, one task per subscriber with
+ * pending events, so a publisher never waits on a client. Buffers hold at
+ * most {@code buffer-size} events. When a slow client lets its buffer fill,
+ * the overflow policy either drops the oldest event and later tells the
+ * client how many it missed (an "overflow" event, after which it can catch
+ * up with a delta poll), or disconnects it.
+ *
+ * Writes to a client block, so a client that stops reading would hold a
+ * sender thread. A watchdog drops any subscriber whose current write has
+ * taken longer than {@code write-timeout} and starts an extra sender thread
+ * in its place until the stalled write returns, so stalled clients do not
+ * hold up delivery to everyone else. The connection is closed once the
+ * container gives up on the write.
+ *
+ * Comments added through CommentService and written by the ingest drain on
+ * this instance are seen.
+ */
+@Component
+public class CommentStreamHub {
+
+    private static final Logger logger = LoggerFactory.getLogger(CommentStreamHub.class);
+
+    // Events written per sender task before yielding to other subscribers
+    private static final int SEND_BATCH = 16;
+
+    public enum OverflowPolicy {
+        DROP_OLDEST, DISCONNECT
+    }
+
+    /**
+     * Where a subscriber's events go, typically an SSE connection.
+     */
+    public interface Sink {
+
+        void comment(CommentDTO comment) throws IOException;
+
+        void overflow(int dropped) throws IOException;
+
+        void close();
+    }
+
+    public final class Subscription {
+
+        private final Long postId;
+        private final Sink sink;
+        private final ArrayDeque<CommentDTO> buffer = new ArrayDeque<>();
+        private int dropped;
+        private boolean scheduled;
+        private boolean closed;
+        private boolean sending;
+        private long sendStarted;
+        private boolean timedOut;
+
+        private Subscription(Long postId, Sink sink) {
+            this.postId = postId;
+            this.sink = sink;
+        }
+
+        /**
+         * Stops delivery; called when the client goes away.
+         */
+        public void cancel() {
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+                closed = true;
+                buffer.clear();
+            }
+            unregister();
+        }
+
+        private void offer(CommentDTO comment) {
+            boolean disconnect;
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+                if (buffer.size() >= bufferSize && overflowPolicy == OverflowPolicy.DROP_OLDEST) {
+                    buffer.pollFirst();
+                    dropped++;
+                    drops.increment();
+                }
+                if (buffer.size() < bufferSize) {
+                    buffer.addLast(comment);
+                    if (scheduled) {
+                        return;
+                    }
+                    scheduled = true;
+                    disconnect = false;
+                } else {
+                    closed = true;
+                    buffer.clear();
+                    disconnect = true;
+                }
+            }
+            if (disconnect) {
+                // Full under DISCONNECT; closing may block on the client, so it is left to a sender
+                disconnects.increment();
+                unregister();
+                executor.execute(sink::close);
+                return;
+            }
+            executor.execute(this::send);
+        }
+
+        private void send() {
+            for (int i = 0; i < SEND_BATCH; i++) {
+                CommentDTO next;
+                int missed;
+                synchronized (this) {
+                    if (closed || (buffer.isEmpty() && dropped == 0)) {
+                        scheduled = false;
+                        return;
+                    }
+                    missed = dropped;
+                    dropped = 0;
+                    next = buffer.pollFirst();
+                    sending = true;
+                    sendStarted = System.nanoTime();
+                }
+                boolean failed = false;
+                try {
+                    if (missed > 0) {
+                        sink.overflow(missed);
+                    }
+                    if (next != null) {
+                        sink.comment(next);
+                        sent.increment();
+                    }
+                } catch (IOException | RuntimeException e) {
+                    logger.debug("Comment stream of post {} failed, dropping subscriber", postId, e);
+                    failed = true;
+                }
+                boolean stalled;
+                synchronized (this) {
+                    sending = false;
+                    stalled = timedOut;
+                }
+                if (stalled) {
+                    // Already dropped by the watchdog, which started a sender in place of this one
+                    sink.close();
+                    resizeSenders(-1);
+                    return;
+                }
+                if (failed) {
+                    cancel();
+                    sink.close();
+                    return;
+                }
+            }
+            // More pending: requeue behind other subscribers instead of hogging the thread
+            executor.execute(this::send);
+        }
+
+        private void dropIfStalled(long now) {
+            synchronized (this) {
+                if (closed || !sending || now - sendStarted < writeTimeoutNanos) {
+                    return;
+                }
+                closed = true;
+                timedOut = true;
+                buffer.clear();
+            }
+            logger.debug("Comment stream write to a subscriber of post {} timed out, dropping it", postId);
+            timeouts.increment();
+            unregister();
+            resizeSenders(1);
+        }
+
+        private void unregister() {
+            subscribers.computeIfPresent(postId, (id, set) -> {
+                set.remove(this);
+                return set.isEmpty() ? null : set;
+            });
+            subscriberCount.decrementAndGet();
+        }
+    }
+
+    private final int bufferSize;
+    private final OverflowPolicy overflowPolicy;
+    private final int senderThreads;
+    private final long writeTimeoutNanos;
+    private final ThreadPoolExecutor executor;
+    private final ScheduledExecutorService watchdog;
+    private int stalledSenders;
+    private final Map<Long, Set<Subscription>> subscribers = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+
+    private final Counter sent;
+    private final Counter drops;
+    private final Counter disconnects;
+    private final Counter timeouts;
+
+    public CommentStreamHub(MeterRegistry meterRegistry,
+            @Value("${app.comments.stream.buffer-size:64}") int bufferSize,
+            @Value("${app.comments.stream.overflow-policy:DROP_OLDEST}") OverflowPolicy overflowPolicy,
+            @Value("${app.comments.stream.sender-threads:4}") int senderThreads,
+            @Value("${app.comments.stream.write-timeout:10s}") Duration writeTimeout) {
+        this.bufferSize = bufferSize;
+        this.overflowPolicy = overflowPolicy;
+        this.senderThreads = senderThreads;
+        this.writeTimeoutNanos = writeTimeout.toNanos();
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(senderThreads, senderThreads, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), runnable -> {
+                    Thread thread = new Thread(runnable, "comment-stream-" + threadIndex.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.watchdog = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "comment-stream-watchdog");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long checkMillis = Math.max(writeTimeout.toMillis() / 4, 1);
+        watchdog.scheduleWithFixedDelay(this::dropStalled, checkMillis, checkMillis, TimeUnit.MILLISECONDS);
+
+        Gauge.builder("comments.stream.subscribers", subscriberCount, AtomicInteger::get)
+                .description("Open comment streams")
+                .register(meterRegistry);
+        this.sent = Counter.builder("comments.stream.sent").register(meterRegistry);
+        this.drops = Counter.builder("comments.stream.dropped")
+                .description("Events dropped from the buffer of a slow subscriber")
+                .register(meterRegistry);
+        this.disconnects = Counter.builder("comments.stream.disconnected")
+                .description("Slow subscribers disconnected on a full buffer")
+                .register(meterRegistry);
+        this.timeouts = Counter.builder("comments.stream.write-timeouts")
+                .description("Subscribers dropped because a write to them took longer than the write timeout")
+                .register(meterRegistry);
+    }
+
+    public Subscription subscribe(Long postId, Sink sink) {
+        Subscription subscription = new Subscription(postId, sink);
+        // Added inside compute() so it cannot race with the last subscriber removing the set
+        subscribers.compute(postId, (id, set) -> {
+            Set<Subscription> postSubscribers = set != null ? set : ConcurrentHashMap.newKeySet();
+            postSubscribers.add(subscription);
+            return postSubscribers;
+        });
+        subscriberCount.incrementAndGet();
+        return subscription;
+    }
+
+    /**
+     * Hands a committed comment to every subscriber of its post.
+     */
+    public void publish(CommentDTO comment) {
+        Set<Subscription> postSubscribers = subscribers.get(comment.getPostId());
+        if (postSubscribers != null) {
+            postSubscribers.forEach(subscription -> subscription.offer(comment));
+        }
+    }
+
+    public boolean hasSubscribers(Long postId) {
+        return subscribers.containsKey(postId);
+    }
+
+    public int subscriberCount() {
+        return subscriberCount.get();
+    }
+
+    private void dropStalled() {
+        long now = System.nanoTime();
+        subscribers.values().forEach(set -> set.forEach(subscription -> subscription.dropIfStalled(now)));
+    }
+
+    // One extra sender per write stuck past the timeout, so the pool keeps senderThreads free
+    private synchronized void resizeSenders(int delta) {
+        stalledSenders += delta;
+        int size = senderThreads + stalledSenders;
+        if (delta > 0) {
+            executor.setMaximumPoolSize(size);
+            executor.setCorePoolSize(size);
+        } else {
+            executor.setCorePoolSize(size);
+            executor.setMaximumPoolSize(size);
+        }
+    }
+
+    @PreDestroy
+    public void close() throws InterruptedException {
+        subscribers.values().forEach(set -> set.forEach(subscription -> {
+            subscription.cancel();
+            subscription.sink.close();
+        }));
+        watchdog.shutdownNow();
+        executor.shutdown();
+        executor.awaitTermination(5, TimeUnit.SECONDS);
+    }
+}
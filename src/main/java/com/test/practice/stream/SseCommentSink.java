@@ -0,0 +1,39 @@
+package com.test.practice.stream;
+
+import com.test.practice.dto.CommentDTO;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+
+/**
+ * Writes a comment stream to a Server-Sent Events response. Comments are sent
+ * as "comment" events with the comment id as event id, so a client that
+ * reconnects can catch up with a delta poll from Last-Event-ID.
+ */
+public class SseCommentSink implements CommentStreamHub.Sink {
+
+    private final SseEmitter emitter;
+
+    public SseCommentSink(SseEmitter emitter) {
+        this.emitter = emitter;
+    }
+
+    @Override
+    public void comment(CommentDTO comment) throws IOException {
+        emitter.send(SseEmitter.event()
+                .id(String.valueOf(comment.getId()))
+                .name("comment")
+                .data(comment, MediaType.APPLICATION_JSON));
+    }
+
+    @Override
+    public void overflow(int dropped) throws IOException {
+        emitter.send(SseEmitter.event().name("overflow").data(dropped));
+    }
+
+    @Override
+    public void close() {
+        emitter.complete();
+    }
+}
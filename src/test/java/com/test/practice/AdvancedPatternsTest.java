@@ -126,8 +126,10 @@ public class AdvancedPatternsTest {
         List<Post> posts = postRepository.findAllWithUserFetchJoin();
 
         assertFalse(posts.isEmpty());
+        // Other test classes share the database, so pick out the post created here.
         // Verify we can access the user without exception (and importantly, it should
         // be eagerly loaded)
-        assertEquals("Join User", posts.get(0).getUser().getName());
+        Post fetched = posts.stream().filter(p -> p.getId().equals(post.getId())).findFirst().orElseThrow();
+        assertEquals("Join User", fetched.getUser().getName());
     }
 }
@@ -0,0 +1,198 @@
+package com.test.practice;
+
+import com.test.practice.cache.FirstCommentPageCache;
+import com.test.practice.cache.LastCommentIdCache;
+import com.test.practice.dto.CommentDTO;
+import com.test.practice.dto.CommentReceiptDTO;
+import com.test.practice.entity.Comment;
+import com.test.practice.entity.Post;
+import com.test.practice.entity.User;
+import com.test.practice.exception.BadRequestException;
+import com.test.practice.exception.ResourceNotFoundException;
+import com.test.practice.repository.CommentRepository;
+import com.test.practice.repository.PostRepository;
+import com.test.practice.repository.UserRepository;
+import com.test.practice.service.CommentIngestService;
+import com.test.practice.service.CommentService;
+import com.test.practice.service.CommentThreadService;
+import com.test.practice.service.UniqueCommenterService;
+import com.test.practice.stream.CommentStreamHub;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class CommentIngestServiceTest {
+
+    @Autowired
+    private CommentService commentService;
+
+    @Autowired
+    private CommentThreadService commentThreadService;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private LastCommentIdCache lastCommentIdCache;
+
+    @Autowired
+    private FirstCommentPageCache firstCommentPageCache;
+
+    @Autowired
+    private CommentStreamHub commentStreamHub;
+
+    @Autowired
+    private UniqueCommenterService uniqueCommenterService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @TempDir
+    Path journalDir;
+
+    // A fresh instance over the same directory stands in for a restart
+    private CommentIngestService openIngest() {
+        return new CommentIngestService(commentRepository, userRepository, postRepository, lastCommentIdCache,
+                firstCommentPageCache, commentStreamHub, uniqueCommenterService, transactionTemplate, new SimpleMeterRegistry(),
+                true, journalDir, 4096, 2);
+    }
+
+    private CommentDTO comment(User user, Post post, String text) {
+        return CommentDTO.builder().userId(user.getId()).postId(post.getId()).text(text).build();
+    }
+
+    @Test
+    public void testJournaledCommentsAreWrittenOnceAcrossReplay() throws IOException {
+        User user = userRepository.save(User.builder().name("ingester").email("ingester@ingest.com").build());
+        Post post = postRepository.save(Post.builder().title("Ingested").content("Content").user(user).build());
+
+        CommentIngestService ingest = openIngest();
+        List<CommentReceiptDTO> receipts = List.of(
+                ingest.submit(comment(user, post, "first")),
+                ingest.submit(comment(user, post, "second")),
+                ingest.submit(comment(user, post, "third")));
+        assertEquals(0, commentService.countComments(List.of(post.getId())).get(post.getId()));
+
+        ingest.drain();
+        List<String> texts = commentService.getCommentsByPostId(post.getId(), null, 10).getItems().stream()
+                .map(CommentDTO::getText).toList();
+        assertEquals(List.of("first", "second", "third"), texts.stream().sorted().toList());
+        assertEquals(3L, commentService.countComments(List.of(post.getId())).get(post.getId()));
+        // Root id and path were completed, so they show up as threads too
+        assertEquals(3, commentThreadService.getThreads(post.getId(), null, 10, 5, 10).getItems().size());
+        assertEquals(3, commentRepository.findExistingIngestIds(
+                receipts.stream().map(CommentReceiptDTO::getIngestId).toList()).size());
+        ingest.close();
+
+        // Crash after the commit but before the checkpoint: everything is replayed
+        Files.write(journalDir.resolve("checkpoint"), new byte[Long.BYTES]);
+        CommentIngestService restarted = openIngest();
+        restarted.drain();
+        restarted.close();
+
+        assertEquals(3, commentService.getCommentsByPostId(post.getId(), null, 10).getItems().size());
+        assertEquals(3L, commentService.countComments(List.of(post.getId())).get(post.getId()));
+    }
+
+    @Test
+    public void testCommentsTheInsertWouldRejectAreRefusedUpFront() throws IOException {
+        User user = userRepository.save(User.builder().name("refused").email("refused@ingest.com").build());
+        Post post = postRepository.save(Post.builder().title("Strict").content("Content").user(user).build());
+
+        CommentIngestService ingest = openIngest();
+        assertThrows(ResourceNotFoundException.class, () -> ingest.submit(
+                CommentDTO.builder().userId(user.getId()).postId(-1L).text("lost").build()));
+        assertThrows(ResourceNotFoundException.class, () -> ingest.submit(
+                CommentDTO.builder().userId(-1L).postId(post.getId()).text("lost").build()));
+        assertThrows(BadRequestException.class, () -> ingest.submit(
+                comment(user, post, "x".repeat(Comment.MAX_TEXT_LENGTH + 1))));
+        ingest.submit(comment(user, post, "x".repeat(Comment.MAX_TEXT_LENGTH)));
+        ingest.drain();
+        ingest.close();
+
+        assertEquals(1, commentService.getCommentsByPostId(post.getId(), null, 10).getItems().size());
+    }
+
+    @Test
+    public void testCommentsOnPostsDeletedAfterAcceptanceAreDropped() throws IOException {
+        User user = userRepository.save(User.builder().name("orphan").email("orphan@ingest.com").build());
+        Post post = postRepository.save(Post.builder().title("Kept").content("Content").user(user).build());
+        Post doomed = postRepository.save(Post.builder().title("Doomed").content("Content").user(user).build());
+
+        CommentIngestService ingest = openIngest();
+        ingest.submit(comment(user, doomed, "lost"));
+        ingest.submit(comment(user, post, "kept"));
+        postRepository.deleteById(doomed.getId());
+        ingest.drain();
+        ingest.close();
+
+        List<CommentDTO> comments = commentService.getCommentsByPostId(post.getId(), null, 10).getItems();
+        assertEquals(1, comments.size());
+        assertEquals("kept", comments.get(0).getText());
+        assertNotNull(comments.get(0).getId());
+
+        // The journal moved past both records
+        CommentIngestService reopened = openIngest();
+        reopened.drain();
+        reopened.close();
+        assertEquals(1, commentService.getCommentsByPostId(post.getId(), null, 10).getItems().size());
+    }
+
+    @Test
+    public void testDrainedCommentsAreStreamed() throws Exception {
+        User user = userRepository.save(User.builder().name("streamer").email("streamer@ingest.com").build());
+        Post post = postRepository.save(Post.builder().title("Streamed").content("Content").user(user).build());
+        List<CommentDTO> streamed = new CopyOnWriteArrayList<>();
+        CountDownLatch received = new CountDownLatch(2);
+        CommentStreamHub.Subscription subscription = commentStreamHub.subscribe(post.getId(),
+                new CommentStreamHub.Sink() {
+                    @Override
+                    public void comment(CommentDTO comment) {
+                        streamed.add(comment);
+                        received.countDown();
+                    }
+
+                    @Override
+                    public void overflow(int dropped) {
+                    }
+
+                    @Override
+                    public void close() {
+                    }
+                });
+
+        CommentIngestService ingest = openIngest();
+        ingest.submit(comment(user, post, "live one"));
+        ingest.submit(comment(user, post, "live two"));
+        ingest.drain();
+        ingest.close();
+
+        assertTrue(received.await(5, TimeUnit.SECONDS));
+        subscription.cancel();
+        assertEquals(List.of("live one", "live two"), streamed.stream().map(CommentDTO::getText).toList());
+        assertTrue(streamed.stream().allMatch(comment -> comment.getId() != null
+                && "streamer".equals(comment.getUserName())));
+    }
+}
@@ -0,0 +1,108 @@
+package com.test.practice;
+
+import com.test.practice.ingest.CommentJournal;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CommentJournalTest {
+
+    private static final int SEGMENT_BYTES = 256;
+
+    @TempDir
+    Path directory;
+
+    private static List<String> readAll(CommentJournal journal) {
+        return journal.read(journal.checkpoint(), Integer.MAX_VALUE).stream()
+                .map(entry -> new String(entry.payload(), StandardCharsets.UTF_8))
+                .toList();
+    }
+
+    private static byte[] record(int i) {
+        return ("comment number " + i).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private long segmentFiles() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(f -> f.toString().endsWith(".journal")).count();
+        }
+    }
+
+    @Test
+    public void testRecordsSurviveReopenAcrossSegments() throws IOException {
+        try (CommentJournal journal = new CommentJournal(directory, SEGMENT_BYTES)) {
+            for (int i = 0; i < 40; i++) {
+                journal.append(record(i));
+            }
+            assertEquals(40, journal.pendingRecords());
+        }
+        assertTrue(segmentFiles() > 1);
+
+        try (CommentJournal journal = new CommentJournal(directory, SEGMENT_BYTES)) {
+            List<String> records = readAll(journal);
+            assertEquals(40, records.size());
+            assertEquals("comment number 0", records.get(0));
+            assertEquals("comment number 39", records.get(39));
+            assertEquals(40, journal.pendingRecords());
+        }
+    }
+
+    @Test
+    public void testCheckpointSkipsProcessedRecordsAndDropsSegments() throws IOException {
+        try (CommentJournal journal = new CommentJournal(directory, SEGMENT_BYTES)) {
+            for (int i = 0; i < 40; i++) {
+                journal.append(record(i));
+            }
+            long segmentsBefore = segmentFiles();
+            List<CommentJournal.Entry> first = journal.read(journal.checkpoint(), 30);
+            journal.checkpoint(first.get(29).nextPosition(), 30);
+            assertEquals(10, journal.pendingRecords());
+            assertTrue(segmentFiles() < segmentsBefore);
+        }
+
+        try (CommentJournal journal = new CommentJournal(directory, SEGMENT_BYTES)) {
+            List<String> records = readAll(journal);
+            assertEquals(10, records.size());
+            assertEquals("comment number 30", records.get(0));
+            assertEquals(10, journal.pendingRecords());
+
+            journal.append(record(40));
+            assertEquals("comment number 40", readAll(journal).get(10));
+        }
+    }
+
+    @Test
+    public void testTornTailIsDiscarded() throws IOException {
+        long tornAt;
+        try (CommentJournal journal = new CommentJournal(directory, SEGMENT_BYTES)) {
+            journal.append(record(0));
+            journal.append(record(1));
+            tornAt = journal.read(0, 1).get(0).nextPosition();
+        }
+
+        // Corrupt the payload of the second record, as an interrupted write would
+        try (FileChannel channel = FileChannel.open(directory.resolve(String.format("%020d.journal", 0)),
+                StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[] { 'X', 'X' }), tornAt + 10);
+        }
+
+        try (CommentJournal journal = new CommentJournal(directory, SEGMENT_BYTES)) {
+            assertEquals(List.of("comment number 0"), readAll(journal));
+            assertEquals(1, journal.pendingRecords());
+
+            journal.append(record(2));
+            assertEquals(List.of("comment number 0", "comment number 2"), readAll(journal));
+        }
+    }
+}
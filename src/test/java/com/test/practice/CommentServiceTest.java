@@ -0,0 +1,401 @@
+package com.test.practice;
+
+import com.test.practice.cache.LastCommentIdCache;
+import com.test.practice.dto.CommentDTO;
+import com.test.practice.dto.CursorPageDTO;
+import com.test.practice.entity.Category;
+import com.test.practice.entity.Comment;
+import com.test.practice.entity.Post;
+import com.test.practice.entity.User;
+import com.test.practice.exception.BadRequestException;
+import com.test.practice.exception.ResourceNotFoundException;
+import com.test.practice.projection.UserCommentView;
+import com.test.practice.pagination.CursorCodec;
+import com.test.practice.repository.CategoryRepository;
+import com.test.practice.repository.CommentRepository;
+import com.test.practice.repository.PostRepository;
+import com.test.practice.repository.UserRepository;
+import com.test.practice.service.CommentService;
+import com.test.practice.service.CommentThreadService;
+import com.test.practice.service.PostService;
+import com.test.practice.service.UniqueCommenterService;
+import com.test.practice.service.UserService;
+import com.test.practice.stream.CommentStreamHub;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class CommentServiceTest {
+
+    @Autowired
+    private CommentService commentService;
+
+    @Autowired
+    private CommentThreadService commentThreadService;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private LastCommentIdCache lastCommentIdCache;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private PostService postService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private CommentStreamHub commentStreamHub;
+
+    @Autowired
+    private UniqueCommenterService uniqueCommenterService;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    private User newUser(String name) {
+        return userRepository.save(User.builder().name(name).email(name + "@comments.com").build());
+    }
+
+    private static CommentDTO comment(User user, Post post, String text) {
+        return CommentDTO.builder().userId(user.getId()).postId(post.getId()).text(text).build();
+    }
+
+    private Post newPost(User author) {
+        return postRepository.save(Post.builder().title("Commented Post").content("Content").user(author).build());
+    }
+
+    @Test
+    public void testCommentsAreKeysetPagedNewestFirst() {
+        User user = newUser("pager");
+        Post post = newPost(user);
+        LocalDateTime base = LocalDateTime.of(2024, 1, 1, 12, 0);
+        List<Comment> comments = new ArrayList<>();
+        for (int i = 0; i < 250; i++) {
+            // Groups of five share a timestamp so the id tie-breaker is exercised
+            comments.add(Comment.builder().text("Comment " + i).createdAt(base.plusSeconds(i / 5))
+                    .user(user).post(post).build());
+        }
+        commentRepository.saveAll(comments);
+
+        List<Long> seen = new ArrayList<>();
+        String cursor = null;
+        CursorPageDTO<CommentDTO> page;
+        int pages = 0;
+        do {
+            page = commentService.getCommentsByPostId(post.getId(), cursor, 40);
+            assertTrue(page.getItems().size() <= 40);
+            page.getItems().forEach(comment -> seen.add(comment.getId()));
+            cursor = page.getNextCursor();
+            pages++;
+        } while (page.isHasMore());
+
+        List<Long> expected = comments.stream()
+                .sorted(Comparator.comparing(Comment::getCreatedAt).thenComparing(Comment::getId).reversed())
+                .map(Comment::getId)
+                .toList();
+        assertEquals(expected, seen);
+        assertEquals(7, pages);
+        assertNull(page.getNextCursor());
+        assertEquals("pager", page.getItems().get(0).getUserName());
+    }
+
+    @Test
+    public void testInvalidCursorIsRejected() {
+        assertThrows(BadRequestException.class, () -> commentService.getCommentsByPostId(1L, "%%%", 10));
+        assertThrows(BadRequestException.class, () -> commentService.getCommentsByPostId(1L, "AAAA", 10));
+
+        // Well-formed but out of range: nano of second, then epoch second
+        for (String tampered : List.of(CursorCodec.encode(0, 1_000_000_000, 1), CursorCodec.encode(0, -1, 1),
+                CursorCodec.encode(Long.MAX_VALUE, 0, 1))) {
+            assertThrows(BadRequestException.class, () -> commentService.getCommentsByPostId(1L, tampered, 10));
+            assertThrows(BadRequestException.class, () -> commentService.getCommentsByUserId(1L, tampered, 10));
+            assertThrows(BadRequestException.class,
+                    () -> commentThreadService.getThreads(1L, tampered, 10, 5, 10));
+        }
+    }
+
+    @Test
+    public void testDeltaPollingReturnsOnlyNewComments() {
+        User user = newUser("poller");
+        Post post = newPost(user);
+        CommentDTO first = commentService.addComment(comment(user, post, "First"));
+        CommentDTO second = commentService.addComment(comment(user, post, "Second"));
+
+        CursorPageDTO<CommentDTO> delta = commentService.getCommentsSince(post.getId(), 0L, 20);
+        assertEquals(List.of(first.getId(), second.getId()), delta.getItems().stream().map(CommentDTO::getId).toList());
+        assertTrue(commentService.getCommentsSince(post.getId(), second.getId(), 20).getItems().isEmpty());
+
+        CommentDTO third = commentService.addComment(comment(user, post, "Third"));
+        delta = commentService.getCommentsSince(post.getId(), second.getId(), 20);
+        assertEquals(List.of(third.getId()), delta.getItems().stream().map(CommentDTO::getId).toList());
+        assertFalse(delta.isHasMore());
+
+        // A row written behind the service's back is not seen: no-change polls
+        // are answered from the cached newest id without a query
+        jdbcTemplate.update("INSERT INTO comments (text, created_at, user_id, post_id) VALUES (?, ?, ?, ?)",
+                "Direct", LocalDateTime.now(), user.getId(), post.getId());
+        assertTrue(commentService.getCommentsSince(post.getId(), third.getId(), 20).getItems().isEmpty());
+        lastCommentIdCache.invalidate(post.getId());
+        assertEquals(1, commentService.getCommentsSince(post.getId(), third.getId(), 20).getItems().size());
+    }
+
+    @Test
+    public void testCommentCountsFollowAddsAndDeletes() {
+        User author = newUser("countAuthor");
+        User visitor = newUser("countVisitor");
+        Post busy = newPost(author);
+        Post quiet = newPost(author);
+        CommentDTO first = commentService.addComment(comment(author, busy, "One"));
+        commentService.addComment(comment(author, busy, "Two"));
+        commentService.addComment(comment(visitor, busy, "Three"));
+        commentService.addComment(comment(visitor, busy, "Four"));
+        commentService.addComment(comment(visitor, quiet, "Five"));
+
+        assertEquals(Map.of(busy.getId(), 4L, quiet.getId(), 1L, -1L, 0L),
+                commentService.countComments(List.of(busy.getId(), quiet.getId(), -1L)));
+
+        commentService.deleteComment(first.getId());
+        assertThrows(ResourceNotFoundException.class, () -> commentService.deleteComment(first.getId()));
+        assertEquals(3L, postRepository.findById(busy.getId()).orElseThrow().getCommentCount());
+
+        // Deleting a user removes their comments by cascade
+        userService.deleteUser(visitor.getId());
+        assertEquals(Map.of(busy.getId(), 1L, quiet.getId(), 0L),
+                commentService.countComments(List.of(busy.getId(), quiet.getId())));
+        assertEquals(1L, postService.getPostsByUserId(author.getId(), PageRequest.of(0, 10)).getContent().stream()
+                .filter(post -> post.getId().equals(busy.getId()))
+                .findFirst().orElseThrow().getCommentCount());
+    }
+
+    @Test
+    public void testDeletingUserRemovesRepliesUnderTheirComments() {
+        User author = newUser("threadAuthor");
+        User leaver = newUser("threadLeaver");
+        User replier = newUser("threadReplier");
+        Post post = newPost(author);
+        CommentDTO kept = commentService.addComment(comment(author, post, "Stays"));
+        CommentDTO leaving = commentService.addComment(comment(leaver, post, "Goes"));
+        CommentDTO reply = commentService.addComment(CommentDTO.builder().userId(replier.getId())
+                .postId(post.getId()).parentId(leaving.getId()).text("Reply to the leaver").build());
+        commentService.addComment(CommentDTO.builder().userId(leaver.getId()).postId(post.getId())
+                .parentId(reply.getId()).text("Leaver answers").build());
+        commentService.addComment(CommentDTO.builder().userId(author.getId()).postId(post.getId())
+                .parentId(reply.getId()).text("Author answers").build());
+        assertEquals(5L, commentService.countComments(List.of(post.getId())).get(post.getId()));
+
+        userService.deleteUser(leaver.getId());
+
+        // Flat listing, previews, threads and the count agree
+        assertEquals(1L, commentService.countComments(List.of(post.getId())).get(post.getId()));
+        assertEquals(List.of(kept.getId()), commentService.getCommentsByPostId(post.getId(), null, 10)
+                .getItems().stream().map(CommentDTO::getId).toList());
+        assertEquals(List.of(kept.getId()), commentService.getPreviews(List.of(post.getId()), 5)
+                .get(post.getId()).stream().map(CommentDTO::getId).toList());
+        assertEquals(1, commentThreadService.getThreads(post.getId(), null, 10, 5, 10).getItems().size());
+    }
+
+    @Test
+    public void testPreviewsHoldLatestCommentsPerPost() {
+        User user = newUser("previewer");
+        Post busy = newPost(user);
+        Post single = newPost(user);
+        Post empty = newPost(user);
+        LocalDateTime base = LocalDateTime.of(2024, 6, 1, 9, 0);
+        List<Comment> comments = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            comments.add(Comment.builder().text("Busy " + i).createdAt(base.plusMinutes(i)).user(user).post(busy).build());
+        }
+        comments.add(Comment.builder().text("Only").createdAt(base).user(user).post(single).build());
+        commentRepository.saveAll(comments);
+
+        Map<Long, List<CommentDTO>> previews = commentService.getPreviews(
+                List.of(empty.getId(), busy.getId(), single.getId()), 3);
+
+        assertEquals(List.of(empty.getId(), busy.getId(), single.getId()), new ArrayList<>(previews.keySet()));
+        assertTrue(previews.get(empty.getId()).isEmpty());
+        assertEquals(List.of("Busy 9", "Busy 8", "Busy 7"),
+                previews.get(busy.getId()).stream().map(CommentDTO::getText).toList());
+        assertEquals(base.plusMinutes(9), previews.get(busy.getId()).get(0).getCreatedAt());
+        assertEquals("previewer", previews.get(single.getId()).get(0).getUserName());
+    }
+
+    @Test
+    public void testFirstPageIsCachedAndUpdatedInPlace() {
+        User user = newUser("firstPager");
+        Post post = newPost(user);
+        CommentDTO first = commentService.addComment(comment(user, post, "First"));
+        CommentDTO second = commentService.addComment(comment(user, post, "Second"));
+        double hits = firstPageHits();
+
+        assertEquals(List.of(second.getId(), first.getId()), firstPageIds(post));
+        assertEquals(List.of(second.getId(), first.getId()), firstPageIds(post));
+        assertEquals(hits + 1, firstPageHits());
+
+        // Rows written behind the service's back are not seen while the page is
+        // cached, but comments added through it are inserted in place
+        jdbcTemplate.update("INSERT INTO comments (text, created_at, user_id, post_id) VALUES (?, ?, ?, ?)",
+                "Direct", LocalDateTime.now(), user.getId(), post.getId());
+        CommentDTO third = commentService.addComment(comment(user, post, "Third"));
+        assertEquals(List.of(third.getId(), second.getId(), first.getId()), firstPageIds(post));
+
+        // A delete drops the entry; the reload sees every row
+        commentService.deleteComment(second.getId());
+        assertEquals(3, firstPageIds(post).size());
+    }
+
+    @Test
+    public void testAddedCommentsArePublishedToStreams() throws Exception {
+        User user = newUser("streamer");
+        Post post = newPost(user);
+        Post otherPost = newPost(user);
+        BlockingQueue<CommentDTO> received = new LinkedBlockingQueue<>();
+        CommentStreamHub.Subscription subscription = commentStreamHub.subscribe(post.getId(),
+                new CommentStreamHub.Sink() {
+                    @Override
+                    public void comment(CommentDTO comment) {
+                        received.add(comment);
+                    }
+
+                    @Override
+                    public void overflow(int dropped) {
+                    }
+
+                    @Override
+                    public void close() {
+                    }
+                });
+
+        commentService.addComment(comment(user, otherPost, "Elsewhere"));
+        CommentDTO added = commentService.addComment(comment(user, post, "Streamed"));
+        CommentDTO event = received.poll(5, TimeUnit.SECONDS);
+        assertNotNull(event);
+        assertEquals(added.getId(), event.getId());
+        assertEquals("streamer", event.getUserName());
+        assertTrue(received.isEmpty());
+        subscription.cancel();
+    }
+
+    @Test
+    public void testUniqueCommentersPerPostAndCategory() {
+        Category category = categoryRepository.save(Category.builder().name("Discussed").build());
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            users.add(newUser("discusser" + i));
+        }
+        Post first = postRepository.save(Post.builder().title("First").content("Content").user(users.get(0))
+                .category(category).build());
+        Post second = postRepository.save(Post.builder().title("Second").content("Content").user(users.get(0))
+                .category(category).build());
+
+        // Written before any sketch exists: picked up when the sketch is first built
+        jdbcTemplate.update("INSERT INTO comments (text, created_at, user_id, post_id) VALUES (?, ?, ?, ?)",
+                "Direct", LocalDateTime.now(), users.get(5).getId(), first.getId());
+        for (int round = 0; round < 3; round++) {
+            for (User user : users.subList(0, 4)) {
+                commentService.addComment(comment(user, first, "Round " + round));
+            }
+        }
+        commentService.addComment(comment(users.get(3), second, "Both posts"));
+        commentService.addComment(comment(users.get(4), second, "Second only"));
+
+        // Small counts fall in the linear-counting range and come out exact
+        assertEquals(5, uniqueCommenterService.countForPost(first.getId()).getEstimate());
+        assertEquals(2, uniqueCommenterService.countForPost(second.getId()).getEstimate());
+        assertEquals(6, uniqueCommenterService.countForCategory(category.getId()).getEstimate());
+
+        // A post without a sketch is counted from its comments, and reading stores nothing
+        Post third = postRepository.save(Post.builder().title("Third").content("Content").user(users.get(0))
+                .category(category).build());
+        User latecomer = newUser("latecomer");
+        jdbcTemplate.update("INSERT INTO comments (text, created_at, user_id, post_id) VALUES (?, ?, ?, ?)",
+                "Direct", LocalDateTime.now(), latecomer.getId(), third.getId());
+        jdbcTemplate.update("UPDATE posts SET comment_count = 1 WHERE id = ?", third.getId());
+        assertEquals(7, uniqueCommenterService.countForCategory(category.getId()).getEstimate());
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM post_commenter_sketches WHERE post_id = ?", Integer.class, third.getId()));
+        assertEquals(0.023, uniqueCommenterService.countForPost(first.getId()).getStandardError(), 0.001);
+        assertThrows(ResourceNotFoundException.class, () -> uniqueCommenterService.countForPost(-1L));
+    }
+
+    @Test
+    public void testUserCommentHistoryIsKeysetPagedWithPostTitles() {
+        User author = newUser("historian");
+        User other = newUser("bystander");
+        Post first = postRepository.save(Post.builder().title("History A").content("Content").user(author).build());
+        Post second = postRepository.save(Post.builder().title("History B").content("Content").user(author).build());
+        LocalDateTime base = LocalDateTime.of(2024, 3, 1, 9, 0);
+        List<Comment> comments = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            // Pairs share a timestamp so the id tie-breaker is exercised
+            comments.add(Comment.builder().text("Mine " + i).createdAt(base.plusSeconds(i / 2))
+                    .user(author).post(i % 2 == 0 ? first : second).build());
+        }
+        comments.add(Comment.builder().text("Not mine").createdAt(base).user(other).post(first).build());
+        commentRepository.saveAll(comments);
+
+        List<UserCommentView> seen = new ArrayList<>();
+        String cursor = null;
+        CursorPageDTO<UserCommentView> page;
+        do {
+            page = commentService.getCommentsByUserId(author.getId(), cursor, 3);
+            seen.addAll(page.getItems());
+            cursor = page.getNextCursor();
+        } while (page.isHasMore());
+
+        List<Long> expected = comments.subList(0, 7).stream()
+                .sorted(Comparator.comparing(Comment::getCreatedAt).thenComparing(Comment::getId).reversed())
+                .map(Comment::getId)
+                .toList();
+        assertEquals(expected, seen.stream().map(UserCommentView::getId).toList());
+        UserCommentView newest = seen.get(0);
+        assertEquals("Mine 6", newest.getText());
+        assertEquals(first.getId(), newest.getPostId());
+        assertEquals("History A", newest.getPostTitle());
+        assertNull(newest.getParentId());
+
+        assertThrows(ResourceNotFoundException.class, () -> commentService.getCommentsByUserId(-1L, null, 3));
+        assertTrue(commentService.getCommentsByUserId(newUser("silent").getId(), null, 3).getItems().isEmpty());
+    }
+
+    private List<Long> firstPageIds(Post post) {
+        return commentService.getCommentsByPostId(post.getId(), null, 20).getItems().stream()
+                .map(CommentDTO::getId)
+                .toList();
+    }
+
+    private double firstPageHits() {
+        return meterRegistry.get("cache.gets").tags("cache", "comments.first-page", "result", "hit")
+                .functionCounter().count();
+    }
+}
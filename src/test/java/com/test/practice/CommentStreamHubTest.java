@@ -0,0 +1,173 @@
+package com.test.practice;
+
+import com.test.practice.dto.CommentDTO;
+import com.test.practice.stream.CommentStreamHub;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CommentStreamHubTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(CommentStreamHubTest.class);
+
+    // Records what it receives; optionally blocks on the first comment like a stalled client
+    private static class RecordingSink implements CommentStreamHub.Sink {
+        final List<Object> events = new CopyOnWriteArrayList<>();
+        final CountDownLatch entered = new CountDownLatch(1);
+        final CountDownLatch release;
+        final CountDownLatch received;
+        volatile boolean closed;
+
+        RecordingSink(CountDownLatch release, CountDownLatch received) {
+            this.release = release;
+            this.received = received;
+        }
+
+        @Override
+        public void comment(CommentDTO comment) {
+            entered.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            events.add(comment.getId());
+            received.countDown();
+        }
+
+        @Override
+        public void overflow(int dropped) {
+            events.add("overflow:" + dropped);
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+    }
+
+    private static CommentDTO comment(long postId, long id) {
+        return CommentDTO.builder().id(id).postId(postId).text("Comment " + id).build();
+    }
+
+    private static CommentStreamHub hub(int bufferSize, CommentStreamHub.OverflowPolicy policy) {
+        return new CommentStreamHub(new SimpleMeterRegistry(), bufferSize, policy, 4, Duration.ofSeconds(10));
+    }
+
+    @Test
+    public void testTenThousandSubscribersReceiveEveryComment() throws Exception {
+        int subscribers = 10_000;
+        int comments = 10;
+        CommentStreamHub hub = hub(64, CommentStreamHub.OverflowPolicy.DROP_OLDEST);
+        CountDownLatch open = new CountDownLatch(0);
+        CountDownLatch received = new CountDownLatch(subscribers * comments);
+
+        List<RecordingSink> sinks = new ArrayList<>();
+        List<CommentStreamHub.Subscription> subscriptions = new ArrayList<>();
+        for (int i = 0; i < subscribers; i++) {
+            RecordingSink sink = new RecordingSink(open, received);
+            sinks.add(sink);
+            subscriptions.add(hub.subscribe(1L, sink));
+        }
+        hub.subscribe(2L, new RecordingSink(open, new CountDownLatch(0)));
+        assertEquals(subscribers + 1, hub.subscriberCount());
+
+        long start = System.nanoTime();
+        for (long id = 1; id <= comments; id++) {
+            hub.publish(comment(1L, id));
+        }
+        assertTrue(received.await(30, TimeUnit.SECONDS));
+        logger.info("Fanned out {} comments to {} subscribers in {} ms", comments, subscribers,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+
+        List<Object> expected = List.of(1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L, 9L, 10L);
+        sinks.forEach(sink -> assertEquals(expected, sink.events));
+
+        subscriptions.forEach(CommentStreamHub.Subscription::cancel);
+        assertEquals(1, hub.subscriberCount());
+        hub.close();
+    }
+
+    @Test
+    public void testSlowSubscriberDropsOldestAndIsToldHowMany() throws Exception {
+        CommentStreamHub hub = hub(4, CommentStreamHub.OverflowPolicy.DROP_OLDEST);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch received = new CountDownLatch(5);
+        RecordingSink slow = new RecordingSink(release, received);
+        hub.subscribe(1L, slow);
+
+        hub.publish(comment(1L, 1));
+        assertTrue(slow.entered.await(5, TimeUnit.SECONDS));
+        for (long id = 2; id <= 10; id++) {
+            hub.publish(comment(1L, id));
+        }
+        // Comment 1 was being sent; 2-6 were pushed out of the buffer of 4
+        release.countDown();
+        assertTrue(received.await(5, TimeUnit.SECONDS));
+        assertEquals(List.of(1L, "overflow:5", 7L, 8L, 9L, 10L), slow.events);
+        assertFalse(slow.closed);
+        hub.close();
+    }
+
+    @Test
+    public void testSlowSubscriberIsDisconnected() throws Exception {
+        CommentStreamHub hub = hub(4, CommentStreamHub.OverflowPolicy.DISCONNECT);
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingSink slow = new RecordingSink(release, new CountDownLatch(1));
+        hub.subscribe(1L, slow);
+
+        hub.publish(comment(1L, 1));
+        assertTrue(slow.entered.await(5, TimeUnit.SECONDS));
+        for (long id = 2; id <= 6; id++) {
+            hub.publish(comment(1L, id));
+        }
+        assertEquals(0, hub.subscriberCount());
+
+        release.countDown();
+        assertTrue(slow.received.await(5, TimeUnit.SECONDS));
+        hub.close();
+        assertTrue(slow.closed);
+        assertEquals(List.of(1L), slow.events);
+    }
+
+    @Test
+    public void testStalledWriteIsDroppedWithoutBlockingOthers() throws Exception {
+        // A single sender thread, so without the timeout the stalled client would block everyone
+        CommentStreamHub hub = new CommentStreamHub(new SimpleMeterRegistry(), 4,
+                CommentStreamHub.OverflowPolicy.DROP_OLDEST, 1, Duration.ofMillis(200));
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingSink stalled = new RecordingSink(release, new CountDownLatch(1));
+        RecordingSink healthy = new RecordingSink(new CountDownLatch(0), new CountDownLatch(2));
+        hub.subscribe(1L, stalled);
+
+        hub.publish(comment(1L, 1));
+        assertTrue(stalled.entered.await(5, TimeUnit.SECONDS));
+        hub.subscribe(1L, healthy);
+        hub.publish(comment(1L, 2));
+        hub.publish(comment(1L, 3));
+
+        assertTrue(healthy.received.await(5, TimeUnit.SECONDS));
+        assertEquals(List.of(2L, 3L), healthy.events);
+        assertEquals(1, hub.subscriberCount());
+
+        // The stalled write returns eventually; its connection is closed then
+        release.countDown();
+        assertTrue(stalled.received.await(5, TimeUnit.SECONDS));
+        for (int i = 0; i < 50 && !stalled.closed; i++) {
+            Thread.sleep(20);
+        }
+        assertTrue(stalled.closed);
+        assertEquals(List.of(1L), stalled.events);
+        hub.close();
+    }
+}
@@ -0,0 +1,139 @@
+package com.test.practice;
+
+import com.test.practice.dto.CommentDTO;
+import com.test.practice.dto.CommentNodeDTO;
+import com.test.practice.dto.CursorPageDTO;
+import com.test.practice.entity.Post;
+import com.test.practice.entity.User;
+import com.test.practice.exception.BadRequestException;
+import com.test.practice.repository.PostRepository;
+import com.test.practice.repository.UserRepository;
+import com.test.practice.service.CommentService;
+import com.test.practice.service.CommentThreadService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class CommentThreadServiceTest {
+
+    @Autowired
+    private CommentService commentService;
+
+    @Autowired
+    private CommentThreadService commentThreadService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    private User user;
+    private Post post;
+
+    private CommentDTO reply(CommentDTO parent, String text) {
+        return commentService.addComment(CommentDTO.builder().userId(user.getId()).postId(post.getId())
+                .parentId(parent != null ? parent.getId() : null).text(text).build());
+    }
+
+    private static List<String> texts(List<CommentNodeDTO> nodes) {
+        return nodes.stream().map(CommentNodeDTO::getText).toList();
+    }
+
+    private void newThreadedPost(String name) {
+        user = userRepository.save(User.builder().name(name).email(name + "@threads.com").build());
+        post = postRepository.save(Post.builder().title("Threaded").content("Content").user(user).build());
+    }
+
+    @Test
+    public void testThreadsAreAssembledFromPaths() {
+        newThreadedPost("threader");
+        CommentDTO a = reply(null, "A");
+        CommentDTO b = reply(a, "B");
+        reply(b, "C");
+        reply(a, "D");
+        reply(null, "E");
+
+        CursorPageDTO<CommentNodeDTO> page = commentThreadService.getThreads(post.getId(), null, 10, 49, 50);
+        assertEquals(List.of("E", "A"), texts(page.getItems()));
+        CommentNodeDTO root = page.getItems().get(1);
+        assertEquals(List.of("B", "D"), texts(root.getReplies()));
+        assertEquals(List.of("C"), texts(root.getReplies().get(0).getReplies()));
+        assertEquals(2, root.getReplies().get(0).getReplies().get(0).getDepth());
+        assertFalse(root.isTruncated());
+
+        // Depth-limited slice
+        root = commentThreadService.getThreads(post.getId(), null, 10, 1, 50).getItems().get(1);
+        assertEquals(List.of("B", "D"), texts(root.getReplies()));
+        assertTrue(root.getReplies().get(0).getReplies().isEmpty());
+
+        // Size cap keeps the first replies in thread order
+        page = commentThreadService.getThreads(post.getId(), null, 10, 49, 2);
+        root = page.getItems().get(1);
+        assertEquals(List.of("B"), texts(root.getReplies()));
+        assertEquals(List.of("C"), texts(root.getReplies().get(0).getReplies()));
+        assertTrue(root.isTruncated());
+        assertFalse(page.getItems().get(0).isTruncated());
+
+        // Exactly at the cap is not truncated
+        assertFalse(commentThreadService.getThreads(post.getId(), null, 10, 49, 3).getItems().get(1).isTruncated());
+
+        CommentNodeDTO subtree = commentThreadService.getSubtree(b.getId(), 49, 50);
+        assertEquals("B", subtree.getText());
+        assertEquals(List.of("C"), texts(subtree.getReplies()));
+        assertFalse(subtree.isTruncated());
+        subtree = commentThreadService.getSubtree(a.getId(), 49, 1);
+        assertEquals(List.of("B"), texts(subtree.getReplies()));
+        assertTrue(subtree.getReplies().get(0).getReplies().isEmpty());
+        assertTrue(subtree.isTruncated());
+    }
+
+    @Test
+    public void testTopLevelCommentsArePaged() {
+        newThreadedPost("threadPager");
+        CommentDTO first = reply(null, "First");
+        reply(first, "Reply");
+        reply(null, "Second");
+
+        CursorPageDTO<CommentNodeDTO> page = commentThreadService.getThreads(post.getId(), null, 1, 49, 50);
+        assertEquals(List.of("Second"), texts(page.getItems()));
+        assertTrue(page.isHasMore());
+
+        page = commentThreadService.getThreads(post.getId(), page.getNextCursor(), 1, 49, 50);
+        assertEquals(List.of("First"), texts(page.getItems()));
+        assertEquals(List.of("Reply"), texts(page.getItems().get(0).getReplies()));
+        assertFalse(page.isHasMore());
+    }
+
+    @Test
+    public void testDeletingACommentRemovesItsSubtree() {
+        newThreadedPost("pruner");
+        CommentDTO a = reply(null, "A");
+        CommentDTO b = reply(a, "B");
+        reply(b, "C");
+        reply(a, "D");
+
+        commentService.deleteComment(b.getId());
+
+        assertEquals(2L, postRepository.findById(post.getId()).orElseThrow().getCommentCount());
+        CommentNodeDTO root = commentThreadService.getSubtree(a.getId(), 49, 50);
+        assertEquals(List.of("D"), texts(root.getReplies()));
+    }
+
+    @Test
+    public void testReplyMustStayOnTheSamePost() {
+        newThreadedPost("crossPoster");
+        CommentDTO a = reply(null, "A");
+        Post other = postRepository.save(Post.builder().title("Other").content("Content").user(user).build());
+
+        assertThrows(BadRequestException.class, () -> commentService.addComment(CommentDTO.builder()
+                .userId(user.getId()).postId(other.getId()).parentId(a.getId()).text("Misplaced").build()));
+    }
+}
@@ -0,0 +1,133 @@
+package com.test.practice;
+
+import com.test.practice.compression.ContentCodec;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ContentCodecTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(ContentCodecTest.class);
+
+    private static final String[] WORDS = { "the", "post", "about", "java", "performance", "of", "a", "database",
+            "query", "and", "index", "memory", "we", "measured", "latency", "under", "load", "with", "cache",
+            "requests", "per", "second", "is", "for", "each", "user", "comment", "page" };
+
+    private static ContentCodec codec(boolean enabled) {
+        return new ContentCodec(new SimpleMeterRegistry(), enabled, 1024, 1);
+    }
+
+    // Word salad: compresses roughly like prose
+    private static String prose(int length, long seed) {
+        Random random = new Random(seed);
+        StringBuilder text = new StringBuilder(length + 16);
+        while (text.length() < length) {
+            text.append(WORDS[random.nextInt(WORDS.length)]).append(random.nextInt(12) == 0 ? ". " : " ");
+        }
+        return text.substring(0, length);
+    }
+
+    @Test
+    public void testRoundTripsEveryFormat() {
+        ContentCodec codec = codec(true);
+        String shortText = "Short body with an emoji 😀";
+        String longText = prose(10_000, 1);
+
+        byte[] raw = codec.encode(shortText);
+        assertEquals(ContentCodec.Format.RAW, ContentCodec.formatOf(raw));
+        assertEquals(shortText, codec.decode(raw));
+
+        byte[] deflated = codec.encode(longText);
+        assertEquals(ContentCodec.Format.DEFLATE, ContentCodec.formatOf(deflated));
+        assertTrue(deflated.length < longText.length() / 2);
+        assertEquals(longText, codec.decode(deflated));
+
+        // Rows written before the column became binary
+        byte[] legacy = longText.getBytes(StandardCharsets.UTF_8);
+        assertEquals(ContentCodec.Format.LEGACY, ContentCodec.formatOf(legacy));
+        assertEquals(longText, codec.decode(legacy));
+        assertEquals("", codec.decode(new byte[0]));
+    }
+
+    @Test
+    public void testKeepsRawWhenDisabledOrIncompressible() {
+        String longText = prose(10_000, 2);
+        assertEquals(ContentCodec.Format.RAW, ContentCodec.formatOf(codec(false).encode(longText)));
+
+        // Deflating a few distinct characters only adds overhead
+        ContentCodec noThreshold = new ContentCodec(new SimpleMeterRegistry(), true, 1, 1);
+        assertEquals(ContentCodec.Format.RAW, ContentCodec.formatOf(noThreshold.encode("abcdefgh")));
+
+        // A disabled codec still reads what an enabled one wrote
+        assertEquals(longText, codec(false).decode(codec(true).encode(longText)));
+    }
+
+    @Test
+    public void testCurrentFormat() {
+        ContentCodec enabled = codec(true);
+        ContentCodec disabled = codec(false);
+        byte[] rawLong = disabled.encode(prose(5_000, 4));
+        byte[] legacy = "Legacy".getBytes(StandardCharsets.UTF_8);
+
+        assertFalse(enabled.isCurrent(legacy));
+        assertFalse(disabled.isCurrent(legacy));
+        assertFalse(enabled.isCurrent(rawLong));
+        assertTrue(disabled.isCurrent(rawLong));
+        assertTrue(enabled.isCurrent(enabled.encode("Short")));
+        assertTrue(disabled.isCurrent(enabled.encode(prose(5_000, 5))));
+    }
+
+    @Test
+    public void testCorruptContentIsRejected() {
+        ContentCodec codec = codec(true);
+        byte[] deflated = codec.encode(prose(5_000, 6));
+        assertThrows(IllegalStateException.class, () -> codec.decode(Arrays.copyOf(deflated, deflated.length / 2)));
+        assertThrows(IllegalStateException.class, () -> codec.decode(new byte[] { 0, 7, 1, 2 }));
+    }
+
+    /**
+     * Throughput and ratio per body size; stands in for a JMH benchmark, which
+     * the build does not include. Numbers are logged, not asserted.
+     */
+    @Test
+    public void testCompressionBenchmark() {
+        ContentCodec raw = codec(false);
+        ContentCodec deflate = codec(true);
+        for (int size : new int[] { 2_000, 20_000, 200_000 }) {
+            String text = prose(size, size);
+            byte[] rawStored = raw.encode(text);
+            byte[] deflated = deflate.encode(text);
+            int runs = 20_000_000 / size;
+
+            long rawEncode = nanosPerRun(runs, () -> raw.encode(text));
+            long deflateEncode = nanosPerRun(runs, () -> deflate.encode(text));
+            long rawDecode = nanosPerRun(runs, () -> raw.decode(rawStored));
+            long deflateDecode = nanosPerRun(runs, () -> deflate.decode(deflated));
+            logger.info("{} byte body: deflate ratio {}; encode raw {} us, deflate {} us; decode raw {} us, "
+                    + "deflate {} us", size, String.format("%.2f", (double) rawStored.length / deflated.length),
+                    rawEncode / 1_000.0, deflateEncode / 1_000.0, rawDecode / 1_000.0, deflateDecode / 1_000.0);
+
+            assertEquals(text, deflate.decode(deflated));
+            assertTrue(deflated.length < rawStored.length);
+        }
+    }
+
+    private static long nanosPerRun(int runs, Runnable run) {
+        // Warm-up, then measure
+        for (int i = 0; i < runs / 4; i++) {
+            run.run();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < runs; i++) {
+            run.run();
+        }
+        return (System.nanoTime() - start) / runs;
+    }
+}
@@ -0,0 +1,64 @@
+package com.test.practice;
+
+import com.test.practice.cache.FirstCommentPageCache;
+import com.test.practice.dto.CommentDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FirstCommentPageCacheTest {
+
+    private static CommentDTO comment(long id) {
+        return CommentDTO.builder().id(id).postId(1L).text("Comment " + id)
+                .createdAt(LocalDateTime.of(2026, 1, 1, 0, 0).plusSeconds(id)).build();
+    }
+
+    private static List<Long> ids(List<CommentDTO> page) {
+        return page.stream().map(CommentDTO::getId).toList();
+    }
+
+    @Test
+    public void testCommentAddedDuringLoadIsNotLost() {
+        FirstCommentPageCache cache = new FirstCommentPageCache(new SimpleMeterRegistry(), 100,
+                Duration.ofMinutes(1), 11);
+        List<CommentDTO> stored = new ArrayList<>(List.of(comment(1), comment(2)));
+        AtomicInteger loads = new AtomicInteger();
+        Runnable[] duringLoad = { () -> {
+            // Commits after the loader's query has read the page
+            stored.add(comment(3));
+            cache.added(comment(3));
+        } };
+
+        Function<Long, List<CommentDTO>> loader = postId -> {
+            loads.incrementAndGet();
+            List<CommentDTO> page = stored.stream()
+                    .sorted(Comparator.comparing(CommentDTO::getCreatedAt).reversed())
+                    .toList();
+            Runnable hook = duringLoad[0];
+            duringLoad[0] = null;
+            if (hook != null) {
+                hook.run();
+            }
+            return page;
+        };
+
+        assertEquals(List.of(2L, 1L), ids(cache.get(1L, loader)));
+        // That load was not cached; the next read sees comment 3
+        assertEquals(List.of(3L, 2L, 1L), ids(cache.get(1L, loader)));
+        assertEquals(2, loads.get());
+
+        // Cached now, and updated in place
+        cache.added(comment(4));
+        assertEquals(List.of(4L, 3L, 2L, 1L), ids(cache.get(1L, loader)));
+        assertEquals(2, loads.get());
+    }
+}
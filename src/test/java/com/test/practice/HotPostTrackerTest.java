@@ -0,0 +1,110 @@
+package com.test.practice;
+
+import com.test.practice.sketch.HotPostTracker;
+import com.test.practice.sketch.SpaceSaving;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HotPostTrackerTest {
+
+    private static class MutableClock extends Clock {
+        private long millis;
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return Instant.ofEpochMilli(millis);
+        }
+    }
+
+    // Zipf-like skew: post k is drawn with probability proportional to 1/k
+    private static long skewedPost(Random random, int posts) {
+        double u = random.nextDouble() * Math.log(posts + 1.0);
+        return (long) Math.exp(u);
+    }
+
+    @Test
+    public void testSpaceSavingErrorBounds() {
+        int capacity = 100;
+        int offers = 100_000;
+        SpaceSaving summary = new SpaceSaving(capacity);
+        Map<Long, Long> exact = new HashMap<>();
+        Random random = new Random(42);
+
+        for (int i = 0; i < offers; i++) {
+            long post = skewedPost(random, 10_000);
+            summary.offer(post);
+            exact.merge(post, 1L, Long::sum);
+        }
+
+        long bound = offers / capacity;
+        assertTrue(summary.minCount() <= bound);
+        for (SpaceSaving.Estimate estimate : summary.estimates()) {
+            long truth = exact.get(estimate.key());
+            assertTrue(truth <= estimate.count(), "estimate must not underestimate");
+            assertTrue(estimate.count() <= truth + estimate.error());
+            assertTrue(estimate.error() <= bound);
+        }
+        exact.forEach((post, truth) -> {
+            if (truth > bound) {
+                assertNotNull(summary.get(post), "heavy hitter " + post + " must be tracked");
+            }
+        });
+    }
+
+    @Test
+    public void testSlidingWindowBoundsAndExpiry() {
+        MutableClock clock = new MutableClock();
+        int capacity = 50;
+        HotPostTracker tracker = new HotPostTracker(capacity, Duration.ofSeconds(10), 5, clock);
+        Random random = new Random(7);
+
+        // 20 seconds of traffic; only the last 10 are in the window
+        Map<Long, Long> inWindow = new HashMap<>();
+        long windowTotal = 0;
+        for (int second = 0; second < 20; second++) {
+            clock.millis = second * 1000L;
+            for (int i = 0; i < 1000; i++) {
+                long post = skewedPost(random, 5_000);
+                tracker.record(post);
+                if (second >= 10) {
+                    inWindow.merge(post, 1L, Long::sum);
+                    windowTotal++;
+                }
+            }
+        }
+
+        List<HotPostTracker.HotPost> top = tracker.top(10);
+        assertEquals(10, top.size());
+        assertEquals(1L, top.get(0).postId());
+        for (HotPostTracker.HotPost hot : top) {
+            long truth = inWindow.getOrDefault(hot.postId(), 0L);
+            assertTrue(truth <= hot.count());
+            assertTrue(hot.count() <= truth + hot.error());
+            assertTrue(hot.error() <= windowTotal / capacity);
+        }
+
+        clock.millis += 20_000;
+        assertTrue(tracker.top(10).isEmpty());
+    }
+}
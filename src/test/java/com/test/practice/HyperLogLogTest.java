@@ -0,0 +1,58 @@
+package com.test.practice;
+
+import com.test.practice.sketch.HyperLogLog;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HyperLogLogTest {
+
+    private static HyperLogLog sketchOf(long from, long to) {
+        HyperLogLog sketch = new HyperLogLog();
+        for (long value = from; value < to; value++) {
+            sketch.add(value);
+        }
+        return sketch;
+    }
+
+    private static void assertWithinError(long expected, long estimate) {
+        // Three standard errors: failing this is a bug, not bad luck
+        double error = Math.abs(estimate - expected) / (double) expected;
+        assertTrue(error < 3 * HyperLogLog.STANDARD_ERROR,
+                "estimate " + estimate + " for " + expected + " is off by " + error);
+    }
+
+    @Test
+    public void testEstimatesStayWithinStandardError() {
+        for (long cardinality : new long[] { 100, 1_000, 10_000, 100_000, 1_000_000 }) {
+            HyperLogLog sketch = sketchOf(1, cardinality + 1);
+            assertWithinError(cardinality, sketch.estimate());
+        }
+        assertEquals(0, new HyperLogLog().estimate());
+    }
+
+    @Test
+    public void testRepeatsAreNotCounted() {
+        HyperLogLog sketch = sketchOf(1, 5_001);
+        byte[] before = sketch.toBytes();
+        for (long value = 1; value <= 5_000; value++) {
+            assertFalse(sketch.wouldChange(value));
+            assertFalse(sketch.add(value));
+        }
+        assertArrayEquals(before, sketch.toBytes());
+    }
+
+    @Test
+    public void testMergeCountsTheUnion() {
+        HyperLogLog left = sketchOf(0, 60_000);
+        HyperLogLog right = sketchOf(40_000, 100_000);
+        left.merge(right);
+
+        assertArrayEquals(sketchOf(0, 100_000).toBytes(), left.toBytes());
+        assertWithinError(100_000, left.estimate());
+
+        HyperLogLog restored = HyperLogLog.fromBytes(left.toBytes());
+        assertEquals(left.estimate(), restored.estimate());
+        assertThrows(IllegalArgumentException.class, () -> HyperLogLog.fromBytes(new byte[16]));
+    }
+}
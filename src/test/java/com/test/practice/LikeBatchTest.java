@@ -0,0 +1,126 @@
+package com.test.practice;
+
+import com.test.practice.dto.LikeAction;
+import com.test.practice.dto.LikeBatchItemDTO;
+import com.test.practice.dto.LikeBatchResultDTO;
+import com.test.practice.dto.PostLikeDTO;
+import com.test.practice.entity.Post;
+import com.test.practice.entity.User;
+import com.test.practice.repository.PostLikeRepository;
+import com.test.practice.repository.PostRepository;
+import com.test.practice.repository.UserRepository;
+import com.test.practice.service.LikeBatchService;
+import com.test.practice.service.PostLikeService;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class LikeBatchTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(LikeBatchTest.class);
+
+    @Autowired
+    private LikeBatchService likeBatchService;
+
+    @Autowired
+    private PostLikeService postLikeService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private PostLikeRepository postLikeRepository;
+
+    private List<User> newUsers(String prefix, int count) {
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            users.add(User.builder().name(prefix + i).email(prefix + i + "@batch.com").build());
+        }
+        return userRepository.saveAll(users);
+    }
+
+    private List<Post> newPosts(User author, int count) {
+        List<Post> posts = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            posts.add(Post.builder().title("Batch Post " + i).content("Content").user(author).build());
+        }
+        return postRepository.saveAll(posts);
+    }
+
+    private static LikeBatchItemDTO item(Long userId, Long postId, LikeAction action) {
+        return LikeBatchItemDTO.builder().userId(userId).postId(postId).action(action).build();
+    }
+
+    @Test
+    public void testBatchStatusesFollowRequestOrder() {
+        List<User> users = newUsers("statusUser", 2);
+        Post post = newPosts(users.get(0), 1).get(0);
+        Long alice = users.get(0).getId();
+        Long bob = users.get(1).getId();
+        postLikeService.likePost(PostLikeDTO.builder().userId(bob).postId(post.getId()).build());
+
+        LikeBatchResultDTO result = likeBatchService.applyBatch(List.of(
+                item(alice, post.getId(), LikeAction.LIKE),
+                item(alice, post.getId(), LikeAction.LIKE),
+                item(bob, post.getId(), LikeAction.LIKE),
+                item(bob, post.getId(), LikeAction.UNLIKE),
+                item(alice, -1L, LikeAction.LIKE),
+                item(alice, null, LikeAction.LIKE)));
+
+        assertEquals("AUUANX", result.getStatuses());
+        assertEquals(2, result.getApplied());
+        assertTrue(postLikeRepository.existsByUserIdAndPostId(alice, post.getId()));
+        assertFalse(postLikeRepository.existsByUserIdAndPostId(bob, post.getId()));
+        assertEquals(1L, postRepository.findLikeCountById(post.getId()).orElseThrow());
+        assertEquals(1L, postLikeService.countLikes(post.getId()));
+    }
+
+    @Test
+    public void testBatchThroughputAgainstOneByOne() {
+        int userCount = 20;
+        int postCount = 50;
+        List<User> users = newUsers("throughputUser", userCount);
+        List<Post> singlePosts = newPosts(users.get(0), postCount);
+        List<Post> batchPosts = newPosts(users.get(0), postCount);
+
+        long start = System.nanoTime();
+        for (User user : users) {
+            for (Post post : singlePosts) {
+                postLikeService.likePost(PostLikeDTO.builder().userId(user.getId()).postId(post.getId()).build());
+            }
+        }
+        long singleNanos = System.nanoTime() - start;
+
+        List<LikeBatchItemDTO> items = new ArrayList<>();
+        for (User user : users) {
+            for (Post post : batchPosts) {
+                items.add(item(user.getId(), post.getId(), LikeAction.LIKE));
+            }
+        }
+        start = System.nanoTime();
+        LikeBatchResultDTO result = likeBatchService.applyBatch(items);
+        long batchNanos = System.nanoTime() - start;
+
+        int likes = userCount * postCount;
+        assertEquals(likes, result.getApplied());
+        for (Post post : batchPosts) {
+            assertEquals((long) userCount, postRepository.findLikeCountById(post.getId()).orElseThrow());
+        }
+
+        logger.info("{} likes: one-by-one {} likes/s, batch {} likes/s", likes,
+                likes * 1_000_000_000L / singleNanos, likes * 1_000_000_000L / batchNanos);
+    }
+}
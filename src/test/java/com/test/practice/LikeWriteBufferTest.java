@@ -0,0 +1,115 @@
+package com.test.practice;
+
+import com.test.practice.dto.PostLikeDTO;
+import com.test.practice.entity.Post;
+import com.test.practice.entity.User;
+import com.test.practice.repository.PostLikeRepository;
+import com.test.practice.repository.PostRepository;
+import com.test.practice.repository.UserRepository;
+import com.test.practice.service.LikeWriteBuffer;
+import com.test.practice.service.PostLikeService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "app.likes.coalescing.enabled=true",
+        "app.likes.coalescing.window-ms=600000",
+        "app.likes.coalescing.max-pending=10"
+})
+@ActiveProfiles("test")
+public class LikeWriteBufferTest {
+
+    @Autowired
+    private PostLikeService postLikeService;
+
+    @Autowired
+    private LikeWriteBuffer likeWriteBuffer;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private PostLikeRepository postLikeRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    public void testTogglesAreCoalescedIntoOneWrite() {
+        User user = userRepository.save(User.builder().name("Toggler").email("toggler@buffer.com").build());
+        Post post = postRepository.save(Post.builder().title("Toggled").content("Content").user(user).build());
+        PostLikeDTO like = PostLikeDTO.builder().userId(user.getId()).postId(post.getId()).build();
+        double intentsBefore = meterRegistry.get("likes.coalescing.intents").counter().count();
+        double writesBefore = meterRegistry.get("likes.coalescing.writes").counter().count();
+
+        assertTrue(postLikeService.likePost(like).isChanged());
+        assertTrue(postLikeService.unlikePost(user.getId(), post.getId()).isChanged());
+        assertTrue(postLikeService.likePost(like).isChanged());
+        assertFalse(postLikeService.likePost(like).isChanged());
+
+        // Reads see the buffered state before anything is written
+        assertFalse(postLikeRepository.existsByUserIdAndPostId(user.getId(), post.getId()));
+        assertTrue(postLikeService.hasLiked(user.getId(), post.getId()));
+        assertEquals(1L, postLikeService.countLikes(post.getId()));
+
+        likeWriteBuffer.flushAll();
+
+        assertTrue(postLikeRepository.existsByUserIdAndPostId(user.getId(), post.getId()));
+        assertEquals(1L, postRepository.findLikeCountById(post.getId()).orElseThrow());
+        assertEquals(1L, postLikeService.countLikes(post.getId()));
+        assertEquals(0.0, meterRegistry.get("likes.coalescing.queue.depth").gauge().value());
+        // The collapse ratio gauge is cumulative, so compare this test's own counts
+        double intents = meterRegistry.get("likes.coalescing.intents").counter().count() - intentsBefore;
+        double writes = meterRegistry.get("likes.coalescing.writes").counter().count() - writesBefore;
+        assertEquals(1.0, writes);
+        assertTrue(intents / writes >= 4.0);
+        assertTrue(meterRegistry.get("likes.coalescing.collapse.ratio").gauge().value() > 0);
+    }
+
+    @Test
+    public void testCancellingTogglesWriteNothing() {
+        User user = userRepository.save(User.builder().name("Canceller").email("canceller@buffer.com").build());
+        Post post = postRepository.save(Post.builder().title("Cancelled").content("Content").user(user).build());
+
+        postLikeService.likePost(PostLikeDTO.builder().userId(user.getId()).postId(post.getId()).build());
+        postLikeService.unlikePost(user.getId(), post.getId());
+        assertEquals(0L, postLikeService.countLikes(post.getId()));
+
+        double writesBefore = meterRegistry.get("likes.coalescing.writes").counter().count();
+        likeWriteBuffer.flushAll();
+
+        assertEquals(writesBefore, meterRegistry.get("likes.coalescing.writes").counter().count());
+        assertFalse(postLikeRepository.existsByUserIdAndPostId(user.getId(), post.getId()));
+        assertEquals(0L, postLikeService.countLikes(post.getId()));
+    }
+
+    @Test
+    public void testGoingOverMaxPendingFlushesWithoutWaitingForTheWindow() throws InterruptedException {
+        User user = userRepository.save(User.builder().name("Flooder").email("flooder@buffer.com").build());
+        List<Post> posts = new ArrayList<>();
+        for (int i = 0; i < 11; i++) {
+            posts.add(postRepository.save(Post.builder().title("Flooded " + i).content("Content").user(user).build()));
+        }
+
+        // The window is ten minutes, so only the limit of 10 pending pairs can flush these
+        posts.forEach(post -> postLikeService.likePost(
+                PostLikeDTO.builder().userId(user.getId()).postId(post.getId()).build()));
+        for (int i = 0; i < 100 && meterRegistry.get("likes.coalescing.queue.depth").gauge().value() > 0; i++) {
+            Thread.sleep(50);
+        }
+
+        assertEquals(0.0, meterRegistry.get("likes.coalescing.queue.depth").gauge().value());
+        posts.forEach(post -> assertTrue(postLikeRepository.existsByUserIdAndPostId(user.getId(), post.getId())));
+    }
+}
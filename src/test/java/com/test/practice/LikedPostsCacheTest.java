@@ -0,0 +1,62 @@
+package com.test.practice;
+
+import com.test.practice.cache.LikedPostsCache;
+import com.test.practice.repository.PostLikeRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LikedPostsCacheTest {
+
+    // Answers findPostIdsByUserId from a list; runs duringLoad after the "query" has read it
+    private static PostLikeRepository repository(List<Long> likes, AtomicInteger queries,
+            AtomicReference<Runnable> duringLoad) {
+        return (PostLikeRepository) Proxy.newProxyInstance(LikedPostsCacheTest.class.getClassLoader(),
+                new Class<?>[] { PostLikeRepository.class }, (proxy, method, args) -> {
+                    if (!method.getName().equals("findPostIdsByUserId")) {
+                        throw new UnsupportedOperationException(method.getName());
+                    }
+                    queries.incrementAndGet();
+                    List<Long> snapshot = List.copyOf(likes);
+                    Runnable hook = duringLoad.getAndSet(null);
+                    if (hook != null) {
+                        hook.run();
+                    }
+                    return snapshot;
+                });
+    }
+
+    @Test
+    public void testLikeCommittedDuringLoadIsNotLost() {
+        List<Long> likes = new ArrayList<>(List.of(1L));
+        AtomicInteger queries = new AtomicInteger();
+        AtomicReference<Runnable> duringLoad = new AtomicReference<>();
+        LikedPostsCache cache = new LikedPostsCache(repository(likes, queries, duringLoad),
+                new SimpleMeterRegistry(), 1 << 20);
+
+        // Post 2 is liked after the load has read the user's likes, before the bitmap is cached
+        duringLoad.set(() -> {
+            likes.add(2L);
+            cache.added(7L, 2L);
+        });
+        assertEquals(Map.of(1L, true, 2L, false), cache.contains(7L, List.of(1L, 2L)));
+
+        // That load was not cached; the next read sees the like
+        assertEquals(Map.of(1L, true, 2L, true), cache.contains(7L, List.of(1L, 2L)));
+        assertEquals(2, queries.get());
+
+        // Loaded without interference: cached and kept in sync from then on
+        cache.removed(7L, 1L);
+        likes.remove(1L);
+        assertEquals(Map.of(1L, false, 2L, true), cache.contains(7L, List.of(1L, 2L)));
+        assertEquals(2, queries.get());
+    }
+}
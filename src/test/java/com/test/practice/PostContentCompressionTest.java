@@ -0,0 +1,96 @@
+package com.test.practice;
+
+import com.test.practice.compression.ContentCodec;
+import com.test.practice.entity.Post;
+import com.test.practice.entity.User;
+import com.test.practice.repository.PostRepository;
+import com.test.practice.repository.UserRepository;
+import com.test.practice.service.PostContentMigrationService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "app.posts.content-compression.enabled=true",
+        "app.posts.content-compression.threshold-bytes=1024"
+})
+@ActiveProfiles("test")
+public class PostContentCompressionTest {
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PostContentMigrationService postContentMigrationService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    // Content is lazy, so it is read inside a transaction
+    private String loadContent(Long postId) {
+        return transactionTemplate.execute(status -> postRepository.findById(postId).orElseThrow().getContent());
+    }
+
+    private byte[] storedContent(Long postId) {
+        return jdbcTemplate.queryForObject("SELECT content_bin FROM posts WHERE id = ?", byte[].class, postId);
+    }
+
+    @Test
+    public void testLongContentIsStoredCompressed() {
+        User author = userRepository.save(User.builder().name("compressor").email("compressor@zip.com").build());
+        String body = "A long post body that repeats itself. ".repeat(200);
+        Post post = postRepository.save(Post.builder().title("Long").content(body).user(author).build());
+        Post shortPost = postRepository.save(Post.builder().title("Short").content("Short").user(author).build());
+
+        byte[] stored = storedContent(post.getId());
+        assertEquals(ContentCodec.Format.DEFLATE, ContentCodec.formatOf(stored));
+        assertTrue(stored.length * 10 < body.length());
+        assertEquals(ContentCodec.Format.RAW, ContentCodec.formatOf(storedContent(shortPost.getId())));
+
+        assertEquals(body, loadContent(post.getId()));
+        assertEquals("Short", loadContent(shortPost.getId()));
+    }
+
+    @Test
+    public void testMigrationRewritesLegacyRows() {
+        User author = userRepository.save(User.builder().name("legacyAuthor").email("legacy@zip.com").build());
+        String longBody = "Written before compression existed. ".repeat(100);
+        String shortBody = "Old and short";
+        // Rows as they were before the binary column was added: text only
+        for (String body : new String[] { longBody, shortBody }) {
+            jdbcTemplate.update("INSERT INTO posts (title, content, excerpt, user_id, like_count, comment_count) "
+                    + "VALUES (?, ?, ?, ?, 0, 0)", "Legacy", body, Post.excerptOf(body), author.getId());
+        }
+        Long longId = jdbcTemplate.queryForObject(
+                "SELECT id FROM posts WHERE user_id = ? AND excerpt = ?", Long.class, author.getId(),
+                Post.excerptOf(longBody));
+        Long shortId = jdbcTemplate.queryForObject(
+                "SELECT id FROM posts WHERE user_id = ? AND excerpt = ?", Long.class, author.getId(), shortBody);
+
+        // Legacy rows are readable before they are backfilled
+        assertNull(storedContent(longId));
+        assertEquals(longBody, loadContent(longId));
+
+        assertTrue(postContentMigrationService.migrate() >= 2);
+        assertEquals(ContentCodec.Format.DEFLATE, ContentCodec.formatOf(storedContent(longId)));
+        assertEquals(ContentCodec.Format.RAW, ContentCodec.formatOf(storedContent(shortId)));
+        assertEquals(longBody, loadContent(longId));
+        assertEquals(shortBody, loadContent(shortId));
+
+        // A second pass finds nothing left to do for these rows
+        postContentMigrationService.migrate();
+        assertEquals(ContentCodec.Format.DEFLATE, ContentCodec.formatOf(storedContent(longId)));
+    }
+}
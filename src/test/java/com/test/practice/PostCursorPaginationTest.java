@@ -0,0 +1,140 @@
+package com.test.practice;
+
+import com.test.practice.dto.CursorPageDTO;
+import com.test.practice.dto.PostDTO;
+import com.test.practice.entity.Post;
+import com.test.practice.entity.User;
+import com.test.practice.exception.ResourceNotFoundException;
+import com.test.practice.pagination.CursorCodec;
+import com.test.practice.repository.PostRepository;
+import com.test.practice.repository.UserRepository;
+import com.test.practice.service.PostService;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class PostCursorPaginationTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(PostCursorPaginationTest.class);
+
+    private static final int PAGE_SIZE = 10;
+    private static final int DEEP_PAGE = 5_000;
+
+    @Autowired
+    private PostService postService;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User newUser(String name) {
+        return userRepository.save(User.builder().name(name).email(name + "@cursor.com").build());
+    }
+
+    @Test
+    public void testCursorModeWalksAllPostsNewestFirst() {
+        User author = newUser("cursorAuthor");
+        User other = newUser("cursorOther");
+        List<Post> posts = new ArrayList<>();
+        for (int i = 0; i < 23; i++) {
+            posts.add(Post.builder().title("Post " + i).content("Content").user(author).build());
+        }
+        posts.add(Post.builder().title("Someone else's").content("Content").user(other).build());
+        postRepository.saveAll(posts);
+
+        List<Long> seen = new ArrayList<>();
+        String cursor = null;
+        CursorPageDTO<PostDTO> page;
+        do {
+            page = postService.getPostsByUserIdAfter(author.getId(), cursor, PAGE_SIZE);
+            page.getItems().forEach(post -> seen.add(post.getId()));
+            cursor = page.getNextCursor();
+        } while (page.isHasMore());
+
+        List<Long> expected = posts.subList(0, 23).stream()
+                .map(Post::getId)
+                .sorted(Comparator.reverseOrder())
+                .toList();
+        assertEquals(expected, seen);
+        assertNull(cursor);
+
+        assertTrue(postService.getPostsByUserIdAfter(newUser("cursorSilent").getId(), null, PAGE_SIZE)
+                .getItems().isEmpty());
+        assertThrows(ResourceNotFoundException.class, () -> postService.getPostsByUserIdAfter(-1L, null, PAGE_SIZE));
+    }
+
+    // Average time of a page fetch in microseconds, after warming up
+    private static long averageMicros(Supplier<?> fetch) {
+        for (int i = 0; i < 5; i++) {
+            fetch.get();
+        }
+        int runs = 20;
+        long start = System.nanoTime();
+        for (int i = 0; i < runs; i++) {
+            fetch.get();
+        }
+        return (System.nanoTime() - start) / runs / 1_000;
+    }
+
+    // Timings are only logged; wall-clock comparisons are too noisy to assert
+    @Test
+    public void testDeepPagesInPageAndCursorMode() {
+        User author = newUser("prolificAuthor");
+        int total = PAGE_SIZE * DEEP_PAGE;
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < total; i++) {
+            rows.add(new Object[] { "Post " + i, "Content", author.getId() });
+        }
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO posts (title, content, user_id, like_count, comment_count) VALUES (?, ?, ?, 0, 0)",
+                rows);
+
+        try {
+            // Cursor for page DEEP_PAGE: the id of the last post on the page before it
+            List<Long> ids = jdbcTemplate.queryForList("SELECT id FROM posts WHERE user_id = ? ORDER BY id DESC",
+                    Long.class, author.getId());
+            String deepCursor = CursorCodec.encode(ids.get((DEEP_PAGE - 1) * PAGE_SIZE - 1));
+
+            Long userId = author.getId();
+            long pageFirst = averageMicros(
+                    () -> postService.getPostsByUserId(userId, PageRequest.of(0, PAGE_SIZE)));
+            long pageDeep = averageMicros(
+                    () -> postService.getPostsByUserId(userId, PageRequest.of(DEEP_PAGE - 1, PAGE_SIZE)));
+            long cursorFirst = averageMicros(() -> postService.getPostsByUserIdAfter(userId, null, PAGE_SIZE));
+            long cursorDeep = averageMicros(
+                    () -> postService.getPostsByUserIdAfter(userId, deepCursor, PAGE_SIZE));
+            logger.info("{} posts, pages of {}: page mode page 1 {} us, page {} {} us; cursor mode page 1 {} us, "
+                    + "page {} {} us", total, PAGE_SIZE, pageFirst, DEEP_PAGE, pageDeep, cursorFirst, DEEP_PAGE,
+                    cursorDeep);
+
+            // The deep cursor lands on the last page
+            List<Long> deepByCursor = postService.getPostsByUserIdAfter(userId, deepCursor, PAGE_SIZE).getItems()
+                    .stream().map(PostDTO::getId).toList();
+            assertEquals(ids.subList(total - PAGE_SIZE, total), deepByCursor);
+            assertFalse(postService.getPostsByUserIdAfter(userId, deepCursor, PAGE_SIZE).isHasMore());
+        } finally {
+            // Do not leave the bulk rows to the other tests sharing this database
+            jdbcTemplate.update("DELETE FROM posts WHERE user_id = ?", author.getId());
+            userRepository.deleteById(author.getId());
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.test.practice;
+
+import com.test.practice.dto.CommentDTO;
+import com.test.practice.dto.PostDetailDTO;
+import com.test.practice.dto.PostLikeDTO;
+import com.test.practice.entity.Category;
+import com.test.practice.entity.Post;
+import com.test.practice.entity.User;
+import com.test.practice.exception.ResourceNotFoundException;
+import com.test.practice.repository.CategoryRepository;
+import com.test.practice.repository.PostRepository;
+import com.test.practice.repository.UserRepository;
+import com.test.practice.service.CommentService;
+import com.test.practice.service.PostDetailService;
+import com.test.practice.service.PostLikeService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(SqlCapture.class)
+public class PostDetailTest {
+
+    @Autowired
+    private PostDetailService postDetailService;
+
+    @Autowired
+    private CommentService commentService;
+
+    @Autowired
+    private PostLikeService postLikeService;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Test
+    public void testDetailInAFixedNumberOfStatements() {
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            users.add(userRepository.save(User.builder().name("detailUser" + i).email("detail" + i + "@post.com")
+                    .build()));
+        }
+        Category category = categoryRepository.save(Category.builder().name("Detailed").build());
+        Post post = postRepository.save(Post.builder().title("Detail").content("The whole body")
+                .user(users.get(0)).category(category).build());
+        for (User user : users) {
+            commentService.addComment(CommentDTO.builder().text("From " + user.getName()).userId(user.getId())
+                    .postId(post.getId()).build());
+        }
+        postLikeService.likePost(PostLikeDTO.builder().userId(users.get(1).getId()).postId(post.getId()).build());
+        postLikeService.likePost(PostLikeDTO.builder().userId(users.get(2).getId()).postId(post.getId()).build());
+
+        PostDetailDTO[] detail = new PostDetailDTO[1];
+        List<String> cold = SqlCapture.capture(() -> detail[0] = postDetailService.getPostDetail(post.getId(), 2));
+        // Post row, comment page and like count, whatever the number of comments
+        assertEquals(3, cold.size(), cold.toString());
+
+        assertEquals("Detail", detail[0].getPost().getTitle());
+        assertEquals("The whole body", detail[0].getPost().getContent());
+        assertEquals(category.getId(), detail[0].getPost().getCategoryId());
+        assertEquals("Detailed", detail[0].getPost().getCategoryName());
+        assertEquals(2L, detail[0].getPost().getLikeCount());
+        assertEquals(3L, detail[0].getPost().getCommentCount());
+        assertEquals(users.get(0).getId(), detail[0].getAuthorId());
+        assertEquals("detailUser0", detail[0].getAuthorName());
+        assertEquals(List.of("From detailUser2", "From detailUser1"),
+                detail[0].getComments().getItems().stream().map(CommentDTO::getText).toList());
+        assertTrue(detail[0].getComments().isHasMore());
+
+        // With the comment page and like count cached, only the post row is read
+        List<String> warm = SqlCapture.capture(() -> postDetailService.getPostDetail(post.getId(), 2));
+        assertEquals(1, warm.size(), warm.toString());
+    }
+
+    @Test
+    public void testMissingPostIsNotFound() {
+        assertThrows(ResourceNotFoundException.class, () -> postDetailService.getPostDetail(Long.MAX_VALUE, 20));
+    }
+}
@@ -0,0 +1,85 @@
+package com.test.practice;
+
+import com.test.practice.dto.CommentDTO;
+import com.test.practice.dto.PostLikeDTO;
+import com.test.practice.entity.Post;
+import com.test.practice.entity.User;
+import com.test.practice.repository.PostRepository;
+import com.test.practice.repository.UserRepository;
+import com.test.practice.service.CommentService;
+import com.test.practice.service.PostLikeService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(SqlCapture.class)
+public class PostLazyContentTest {
+
+    private static final Pattern SELECTS_CONTENT =
+            Pattern.compile("(?is)^\\s*select\\b.*\\bcontent(_bin)?\\b.*\\bfrom\\s+posts\\b");
+
+    @Autowired
+    private CommentService commentService;
+
+    @Autowired
+    private PostLikeService postLikeService;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private User user;
+    private Post post;
+
+    @BeforeEach
+    public void setUp() {
+        long n = System.nanoTime();
+        user = userRepository.save(User.builder().name("lazyReader" + n).email("lazy" + n + "@reader.com").build());
+        post = postRepository.save(Post.builder().title("Lazy").content("A body nobody reads").user(user).build());
+    }
+
+    private static void assertContentNotSelected(List<String> statements) {
+        assertFalse(statements.isEmpty());
+        statements.forEach(sql -> assertFalse(SELECTS_CONTENT.matcher(sql).find(), sql));
+    }
+
+    @Test
+    public void testWritePathsDoNotSelectContent() {
+        assertContentNotSelected(SqlCapture.capture(() -> commentService.addComment(
+                CommentDTO.builder().text("Nice").userId(user.getId()).postId(post.getId()).build())));
+        assertContentNotSelected(SqlCapture.capture(() -> postLikeService.likePost(
+                PostLikeDTO.builder().userId(user.getId()).postId(post.getId()).build())));
+    }
+
+    @Test
+    public void testContentIsLoadedOnlyWhenRead() {
+        transactionTemplate.executeWithoutResult(status -> {
+            List<Post> posts = postRepository.findAllWithUserFetchJoin();
+            Post fetched = posts.stream().filter(p -> p.getId().equals(post.getId())).findFirst().orElseThrow();
+
+            // Title and excerpt come with the entity, the content fetch group on first access
+            assertTrue(SqlCapture.capture(() -> assertEquals("Lazy", fetched.getTitle())).isEmpty());
+            List<String> statements = SqlCapture.capture(
+                    () -> assertEquals("A body nobody reads", fetched.getContent()));
+            assertEquals(1, statements.size());
+            assertTrue(SELECTS_CONTENT.matcher(statements.get(0)).find(), statements.get(0));
+        });
+        assertContentNotSelected(SqlCapture.capture(postRepository::findAllWithUserFetchJoin));
+    }
+}
@@ -0,0 +1,251 @@
+package com.test.practice;
+
+import com.test.practice.cache.LikeCounterStore;
+import com.test.practice.dto.CursorPageDTO;
+import com.test.practice.dto.LikeResultDTO;
+import com.test.practice.dto.PostLikeDTO;
+import com.test.practice.entity.Post;
+import com.test.practice.entity.PostLike;
+import com.test.practice.entity.User;
+import com.test.practice.exception.BadRequestException;
+import com.test.practice.exception.ResourceNotFoundException;
+import com.test.practice.projection.UserSummary;
+import com.test.practice.repository.PostLikeRepository;
+import com.test.practice.repository.PostRepository;
+import com.test.practice.repository.UserRepository;
+import com.test.practice.service.LikeCountBackfillService;
+import com.test.practice.service.PostLikeService;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class PostLikeServiceTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(PostLikeServiceTest.class);
+
+    @Autowired
+    private PostLikeService postLikeService;
+
+    @Autowired
+    private LikeCounterStore likeCounterStore;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private PostLikeRepository postLikeRepository;
+
+    @Autowired
+    private LikeCountBackfillService likeCountBackfillService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User newUser(String name) {
+        return userRepository.save(User.builder().name(name).email(name + "@likes.com").build());
+    }
+
+    private Post newPost(User author) {
+        return postRepository.save(Post.builder().title("Liked Post").content("Content").user(author).build());
+    }
+
+    @Test
+    public void testCountersFollowLikesAndUnlikes() {
+        User author = newUser("counterAuthor");
+        User fan = newUser("counterFan");
+        Post post = newPost(author);
+
+        assertEquals(0L, postLikeService.countLikes(post.getId()));
+
+        postLikeService.likePost(PostLikeDTO.builder().userId(fan.getId()).postId(post.getId()).build());
+        postLikeService.likePost(PostLikeDTO.builder().userId(author.getId()).postId(post.getId()).build());
+        assertEquals(2L, postLikeService.countLikes(post.getId()));
+
+        postLikeService.unlikePost(fan.getId(), post.getId());
+        postLikeService.unlikePost(fan.getId(), post.getId());
+        assertEquals(1L, postLikeService.countLikes(post.getId()));
+    }
+
+    @Test
+    public void testReconcileCorrectsDrift() {
+        User author = newUser("driftAuthor");
+        User fan = newUser("driftFan");
+        Post post = newPost(author);
+
+        assertEquals(0L, postLikeService.countLikes(post.getId()));
+
+        // Written behind the service's back, so the cached counter is stale
+        postLikeRepository.save(PostLike.builder().user(fan).post(post).build());
+        assertEquals(0L, postLikeService.countLikes(post.getId()));
+
+        likeCounterStore.reconcile();
+        assertEquals(1L, postLikeService.countLikes(post.getId()));
+    }
+
+    @Test
+    public void testLikeCountColumnIsMaintained() {
+        User author = newUser("columnAuthor");
+        User fan = newUser("columnFan");
+        Post post = newPost(author);
+
+        postLikeService.likePost(PostLikeDTO.builder().userId(fan.getId()).postId(post.getId()).build());
+        assertEquals(1L, postRepository.findLikeCountById(post.getId()).orElseThrow());
+        assertEquals(1L, postRepository.findByUserId(author.getId(), PageRequest.of(0, 10))
+                .getContent().get(0).getLikeCount());
+
+        postLikeService.unlikePost(fan.getId(), post.getId());
+        assertEquals(0L, postRepository.findLikeCountById(post.getId()).orElseThrow());
+    }
+
+    @Test
+    public void testBackfillRecomputesLikeCounts() {
+        User author = newUser("backfillAuthor");
+        User fan = newUser("backfillFan");
+        Post post = newPost(author);
+        postLikeService.likePost(PostLikeDTO.builder().userId(fan.getId()).postId(post.getId()).build());
+
+        jdbcTemplate.update("UPDATE posts SET like_count = 42 WHERE id = ?", post.getId());
+        likeCountBackfillService.backfill();
+
+        assertEquals(1L, postRepository.findLikeCountById(post.getId()).orElseThrow());
+    }
+
+    @Test
+    public void testLikeAndUnlikeAreIdempotent() {
+        User author = newUser("idempotentAuthor");
+        User fan = newUser("idempotentFan");
+        Post post = newPost(author);
+        PostLikeDTO like = PostLikeDTO.builder().userId(fan.getId()).postId(post.getId()).build();
+
+        LikeResultDTO first = postLikeService.likePost(like);
+        LikeResultDTO second = postLikeService.likePost(like);
+        assertTrue(first.isChanged());
+        assertFalse(second.isChanged());
+        assertTrue(second.isLiked());
+        assertEquals(1L, postRepository.findLikeCountById(post.getId()).orElseThrow());
+
+        assertTrue(postLikeService.unlikePost(fan.getId(), post.getId()).isChanged());
+        assertFalse(postLikeService.unlikePost(fan.getId(), post.getId()).isChanged());
+        assertEquals(0L, postRepository.findLikeCountById(post.getId()).orElseThrow());
+    }
+
+    @Test
+    public void testLikeOfMissingPostOrUserIsNotFound() {
+        User fan = newUser("missingFan");
+        Post post = newPost(fan);
+
+        ResourceNotFoundException missingPost = assertThrows(ResourceNotFoundException.class,
+                () -> postLikeService.likePost(PostLikeDTO.builder().userId(fan.getId()).postId(-1L).build()));
+        assertEquals("Post not found", missingPost.getMessage());
+
+        ResourceNotFoundException missingUser = assertThrows(ResourceNotFoundException.class,
+                () -> postLikeService.likePost(PostLikeDTO.builder().userId(-1L).postId(post.getId()).build()));
+        assertEquals("User not found", missingUser.getMessage());
+    }
+
+    @Test
+    public void testMembershipFollowsLikes() {
+        User author = newUser("membershipAuthor");
+        User fan = newUser("membershipFan");
+        Post first = newPost(author);
+        Post second = newPost(author);
+        Post third = newPost(author);
+        postLikeService.likePost(PostLikeDTO.builder().userId(fan.getId()).postId(first.getId()).build());
+
+        // Loads the bitmap
+        assertEquals(Map.of(first.getId(), true, second.getId(), false, third.getId(), false),
+                postLikeService.hasLiked(fan.getId(), List.of(first.getId(), second.getId(), third.getId())));
+
+        // Kept in sync from here on
+        postLikeService.likePost(PostLikeDTO.builder().userId(fan.getId()).postId(third.getId()).build());
+        postLikeService.unlikePost(fan.getId(), first.getId());
+        assertEquals(Map.of(first.getId(), false, second.getId(), false, third.getId(), true),
+                postLikeService.hasLiked(fan.getId(), List.of(first.getId(), second.getId(), third.getId())));
+    }
+
+    @Test
+    public void testBulkCountsAgainstPerPostCounts() {
+        User author = newUser("bulkAuthor");
+        User fan = newUser("bulkFan");
+        List<Post> posts = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            posts.add(Post.builder().title("Bulk " + i).content("Content").user(author).build());
+        }
+        postRepository.saveAll(posts);
+        for (int i = 0; i < posts.size(); i += 3) {
+            postLikeService.likePost(PostLikeDTO.builder().userId(fan.getId()).postId(posts.get(i).getId()).build());
+        }
+
+        for (int size : new int[] { 10, 100, 1000 }) {
+            List<Long> postIds = posts.subList(0, size).stream().map(Post::getId).toList();
+            postIds.forEach(likeCounterStore::invalidate);
+
+            long start = System.nanoTime();
+            List<Long> perPost = postIds.stream().map(postLikeRepository::countLikesByPostId).toList();
+            long perPostNanos = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            Map<Long, Long> bulk = postLikeService.countLikes(postIds);
+            long bulkNanos = System.nanoTime() - start;
+
+            assertEquals(perPost, new ArrayList<>(bulk.values()));
+            logger.info("{} posts: per-post {} us, bulk {} us", size, perPostNanos / 1000, bulkNanos / 1000);
+        }
+
+        assertEquals(Map.of(-1L, 0L), postLikeService.countLikes(List.of(-1L)));
+    }
+
+    @Test
+    public void testLikersAreKeysetPaged() {
+        User author = newUser("likersAuthor");
+        Post post = newPost(author);
+        List<User> fans = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            fans.add(User.builder().name("liker" + i).email("liker" + i + "@likes.com").build());
+        }
+        userRepository.saveAll(fans);
+        jdbcTemplate.batchUpdate("INSERT INTO post_likes (user_id, post_id) VALUES (?, ?)",
+                fans.stream().map(fan -> new Object[] { fan.getId(), post.getId() }).toList());
+
+        List<Long> seen = new ArrayList<>();
+        List<Long> pageNanos = new ArrayList<>();
+        String cursor = null;
+        CursorPageDTO<UserSummary> page;
+        do {
+            long start = System.nanoTime();
+            page = postLikeService.getLikers(post.getId(), cursor, 100);
+            pageNanos.add(System.nanoTime() - start);
+            page.getItems().forEach(user -> seen.add(user.getId()));
+            cursor = page.getNextCursor();
+        } while (page.isHasMore());
+
+        // Newest like first, every liker exactly once
+        List<Long> expected = new ArrayList<>(fans.stream().map(User::getId).toList());
+        Collections.reverse(expected);
+        assertEquals(expected, seen);
+        assertEquals(20, pageNanos.size());
+        assertNull(page.getNextCursor());
+        logger.info("Likers page 1: {} us, page 20: {} us", pageNanos.get(0) / 1000,
+                pageNanos.get(pageNanos.size() - 1) / 1000);
+
+        assertThrows(BadRequestException.class, () -> postLikeService.getLikers(post.getId(), "not-a-cursor", 10));
+        assertThrows(ResourceNotFoundException.class, () -> postLikeService.getLikers(-1L, null, 10));
+    }
+}
@@ -0,0 +1,155 @@
+package com.test.practice;
+
+import com.test.practice.dto.CursorPageDTO;
+import com.test.practice.dto.PostDTO;
+import com.test.practice.dto.UserDTO;
+import com.test.practice.entity.Category;
+import com.test.practice.entity.Post;
+import com.test.practice.entity.User;
+import com.test.practice.repository.CategoryRepository;
+import com.test.practice.repository.PostRepository;
+import com.test.practice.repository.UserRepository;
+import com.test.practice.service.CategoryService;
+import com.test.practice.service.PostService;
+import com.test.practice.service.UserService;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(SqlCapture.class)
+public class PostListingTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(PostListingTest.class);
+
+    private static final int PAGE_SIZE = 50;
+    private static final int CONTENT_LENGTH = 20_000;
+
+    private static final Pattern SELECTS_POSTS = Pattern.compile("(?is)^\\s*select\\b.*\\bfrom\\s+posts\\b");
+    private static final Pattern SELECTS_CONTENT =
+            Pattern.compile("(?is)^\\s*select\\b.*\\bcontent(_bin)?\\b.*\\bfrom\\s+posts\\b");
+    private static final Pattern SELECTS_EXCERPT =
+            Pattern.compile("(?is)^\\s*select\\b.*\\bexcerpt\\b.*\\bfrom\\s+posts\\b");
+
+    @Autowired
+    private PostService postService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private JsonMapper jsonMapper;
+
+    private static void assertListing(PostDTO post) {
+        assertNull(post.getContent());
+        assertNotNull(post.getExcerpt());
+        assertEquals(Post.EXCERPT_LENGTH, post.getExcerpt().length());
+    }
+
+    @Test
+    public void testListingsCarryExcerptsInsteadOfContent() {
+        User author = userRepository.save(User.builder().name("essayist").email("essayist@listing.com").build());
+        Category category = categoryRepository.save(Category.builder().name("Essays").build());
+        String body = "Lorem ipsum dolor sit amet. ".repeat(CONTENT_LENGTH / 28 + 1).substring(0, CONTENT_LENGTH);
+        List<Post> posts = new ArrayList<>();
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            posts.add(Post.builder().title("Essay " + i).content(body).user(author).category(category).build());
+        }
+        postRepository.saveAll(posts);
+
+        AtomicReference<List<PostDTO>> pageRef = new AtomicReference<>();
+        AtomicReference<CursorPageDTO<PostDTO>> cursorPageRef = new AtomicReference<>();
+        AtomicReference<List<PostDTO>> byCategoryRef = new AtomicReference<>();
+        AtomicReference<UserDTO> userRef = new AtomicReference<>();
+        List<String> statements = SqlCapture.capture(() -> {
+            pageRef.set(postService.getPostsByUserId(author.getId(), PageRequest.of(0, PAGE_SIZE)).getContent());
+            cursorPageRef.set(postService.getPostsByUserIdAfter(author.getId(), null, PAGE_SIZE));
+            byCategoryRef.set(categoryService.getPostsByCategory(category.getId()));
+            userRef.set(userService.getUserById(author.getId()));
+        });
+        List<PostDTO> page = pageRef.get();
+        CursorPageDTO<PostDTO> cursorPage = cursorPageRef.get();
+        List<PostDTO> byCategory = byCategoryRef.get();
+        UserDTO user = userRef.get();
+
+        // The listings read posts, and none of their statements selects the content column
+        assertTrue(statements.stream().anyMatch(sql -> SELECTS_POSTS.matcher(sql).find()), statements.toString());
+        statements.forEach(sql -> assertFalse(SELECTS_CONTENT.matcher(sql).find(), sql));
+        assertTrue(statements.stream().anyMatch(sql -> SELECTS_EXCERPT.matcher(sql).find()), statements.toString());
+
+        // Body bytes read per page: the content column listings selected before, the excerpt they select now
+        long beforeRead = jdbcTemplate.queryForObject(
+                "SELECT SUM(OCTET_LENGTH(content)) FROM posts WHERE user_id = ?", Long.class, author.getId());
+        long afterRead = jdbcTemplate.queryForObject(
+                "SELECT SUM(OCTET_LENGTH(excerpt)) FROM posts WHERE user_id = ?", Long.class, author.getId());
+        logger.info("Page of {} posts: body bytes read {} -> {}", PAGE_SIZE, beforeRead, afterRead);
+        assertEquals((long) PAGE_SIZE * CONTENT_LENGTH, beforeRead);
+        assertEquals((long) PAGE_SIZE * Post.EXCERPT_LENGTH, afterRead);
+
+        assertEquals(PAGE_SIZE, page.size());
+        page.forEach(PostListingTest::assertListing);
+        cursorPage.getItems().forEach(PostListingTest::assertListing);
+        byCategory.forEach(PostListingTest::assertListing);
+        user.getPosts().forEach(PostListingTest::assertListing);
+        assertEquals("Essays", user.getPosts().get(0).getCategoryName());
+        assertEquals(body.substring(0, Post.EXCERPT_LENGTH), page.get(0).getExcerpt());
+
+        // Response size: the same page with the full body, as listings returned it before
+        List<PostDTO> before = page.stream()
+                .map(post -> PostDTO.builder().id(post.getId()).title(post.getTitle()).content(body)
+                        .categoryId(post.getCategoryId()).categoryName(post.getCategoryName())
+                        .likeCount(post.getLikeCount()).commentCount(post.getCommentCount()).build())
+                .toList();
+        int beforeBytes = jsonMapper.writeValueAsBytes(before).length;
+        int afterBytes = jsonMapper.writeValueAsBytes(page).length;
+        logger.info("Page of {} posts: response bytes {} -> {}", PAGE_SIZE, beforeBytes, afterBytes);
+        assertTrue(afterBytes * 10 < beforeBytes);
+    }
+
+    @Test
+    public void testExcerptFollowsContent() {
+        User author = userRepository.save(User.builder().name("editor").email("editor@listing.com").build());
+        Post post = postRepository.save(Post.builder().title("Short").content("Short body").user(author).build());
+        assertEquals("Short body", post.getExcerpt());
+
+        post.setContent("x".repeat(Post.EXCERPT_LENGTH + 50));
+        postRepository.saveAndFlush(post);
+        assertEquals("x".repeat(Post.EXCERPT_LENGTH),
+                jdbcTemplate.queryForObject("SELECT excerpt FROM posts WHERE id = ?", String.class, post.getId()));
+
+        // A surrogate pair straddling the cut is dropped whole
+        String emoji = "😀";
+        String straddling = "y".repeat(Post.EXCERPT_LENGTH - 1) + emoji;
+        assertEquals("y".repeat(Post.EXCERPT_LENGTH - 1), Post.excerptOf(straddling));
+    }
+}
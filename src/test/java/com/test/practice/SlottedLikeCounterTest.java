@@ -0,0 +1,129 @@
+package com.test.practice;
+
+import com.test.practice.dto.PostLikeDTO;
+import com.test.practice.entity.Post;
+import com.test.practice.entity.PostLikeCounter;
+import com.test.practice.entity.User;
+import com.test.practice.repository.PostLikeCounterRepository;
+import com.test.practice.repository.PostLikeRepository;
+import com.test.practice.repository.PostRepository;
+import com.test.practice.repository.UserRepository;
+import com.test.practice.service.PostLikeService;
+import com.test.practice.service.SlottedLikeCounter;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "app.likes.slotted-counters.enabled=true",
+        "app.likes.slotted-counters.contention-ms=60000",
+        "app.likes.slotted-counters.fold-interval-ms=600000"
+})
+@ActiveProfiles("test")
+public class SlottedLikeCounterTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(SlottedLikeCounterTest.class);
+
+    private static final int THREADS = 8;
+    private static final int LIKES_PER_THREAD = 200;
+
+    @Autowired
+    private PostLikeService postLikeService;
+
+    @Autowired
+    private SlottedLikeCounter slottedLikeCounter;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private PostLikeRepository postLikeRepository;
+
+    @Autowired
+    private PostLikeCounterRepository postLikeCounterRepository;
+
+    private List<User> newUsers(String prefix, int count) {
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            users.add(User.builder().name(prefix + i).email(prefix + i + "@slots.com").build());
+        }
+        return userRepository.saveAll(users);
+    }
+
+    // Every thread likes the same post with its own share of users
+    private long likesPerSecond(Post post, List<User> users) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            long start = System.nanoTime();
+            for (int t = 0; t < THREADS; t++) {
+                List<User> share = users.subList(t * LIKES_PER_THREAD, (t + 1) * LIKES_PER_THREAD);
+                futures.add(executor.submit(() -> share.forEach(user -> postLikeService.likePost(
+                        PostLikeDTO.builder().userId(user.getId()).postId(post.getId()).build()))));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            return users.size() * 1_000_000_000L / (System.nanoTime() - start);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testConcurrentLikesSingleRowVersusSlots() throws Exception {
+        int likes = THREADS * LIKES_PER_THREAD;
+        List<User> users = newUsers("slotUser", likes);
+        Post singleRow = postRepository.save(Post.builder().title("Single row").content("Content")
+                .user(users.get(0)).build());
+        Post sharded = postRepository.save(Post.builder().title("Sharded").content("Content")
+                .user(users.get(0)).build());
+        slottedLikeCounter.setSlots(sharded.getId(), 16);
+
+        long singleRowRate = likesPerSecond(singleRow, users);
+        long shardedRate = likesPerSecond(sharded, users);
+        logger.info("{} concurrent likes on one post: single row {} likes/s, 16 slots {} likes/s",
+                likes, singleRowRate, shardedRate);
+
+        for (Post post : List.of(singleRow, sharded)) {
+            assertEquals((long) likes, postLikeRepository.countLikesByPostId(post.getId()));
+            assertEquals((long) likes, postRepository.findLikeCountById(post.getId()).orElseThrow());
+            assertEquals((long) likes, postLikeService.countLikes(post.getId()));
+        }
+        assertEquals((long) likes, postRepository.findById(singleRow.getId()).orElseThrow().getLikeCount());
+        assertTrue(postLikeCounterRepository.findSlottedPostIds().contains(sharded.getId()));
+
+        // Folding moves the slots into like_count without changing the total
+        slottedLikeCounter.fold();
+        assertFalse(postLikeCounterRepository.findSlottedPostIds().contains(sharded.getId()));
+        assertEquals((long) likes, postRepository.findById(sharded.getId()).orElseThrow().getLikeCount());
+        assertEquals((long) likes, postRepository.findLikeCountById(sharded.getId()).orElseThrow());
+
+        // Slot rows are drained to zero, not deleted, and take the next likes in place
+        List<PostLikeCounter> slots = postLikeCounterRepository.findAll().stream()
+                .filter(counter -> counter.getPostId().equals(sharded.getId()))
+                .toList();
+        assertFalse(slots.isEmpty());
+        assertTrue(slots.stream().allMatch(counter -> counter.getCnt() == 0));
+        for (User user : newUsers("slotAgain", 20)) {
+            postLikeService.likePost(PostLikeDTO.builder().userId(user.getId()).postId(sharded.getId()).build());
+        }
+        assertEquals(likes + 20L, postRepository.findLikeCountById(sharded.getId()).orElseThrow());
+        slottedLikeCounter.fold();
+        assertEquals(likes + 20L, postRepository.findById(sharded.getId()).orElseThrow().getLikeCount());
+    }
+}
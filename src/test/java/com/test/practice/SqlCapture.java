@@ -0,0 +1,88 @@
+package com.test.practice;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Wraps the DataSource of a test context in a proxy that records the SQL of
+ * every statement prepared or executed while {@link #capture} runs, from any
+ * thread. Import it into the test class.
+ */
+@TestConfiguration
+public class SqlCapture {
+
+    private static final List<String> statements = new ArrayList<>();
+    private static boolean capturing;
+
+    @Bean
+    static BeanPostProcessor sqlCapturingDataSource() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                return bean instanceof DataSource dataSource ? proxy(DataSource.class, dataSource) : bean;
+            }
+        };
+    }
+
+    /**
+     * @return the statements issued while work ran, in order
+     */
+    public static List<String> capture(Runnable work) {
+        synchronized (statements) {
+            statements.clear();
+            capturing = true;
+        }
+        try {
+            work.run();
+        } finally {
+            synchronized (statements) {
+                capturing = false;
+            }
+        }
+        synchronized (statements) {
+            return List.copyOf(statements);
+        }
+    }
+
+    private static void record(String sql) {
+        synchronized (statements) {
+            if (capturing) {
+                statements.add(sql);
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, T target) {
+        return (T) Proxy.newProxyInstance(SqlCapture.class.getClassLoader(), new Class<?>[] { type },
+                (proxy, method, args) -> {
+                    String name = method.getName();
+                    if (args != null && args.length > 0 && args[0] instanceof String sql
+                            && (name.startsWith("prepare") || name.startsWith("execute") || name.equals("addBatch"))) {
+                        record(sql);
+                    }
+                    Object result;
+                    try {
+                        result = method.invoke(target, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                    if (result instanceof Connection connection) {
+                        return proxy(Connection.class, connection);
+                    }
+                    if (result instanceof Statement statement && method.getReturnType() == Statement.class) {
+                        return proxy(Statement.class, statement);
+                    }
+                    return result;
+                });
+    }
+}